@@ -2,26 +2,43 @@ package com.rslakra.appsuite.spring.controller.web;
 
 import com.rslakra.appsuite.core.BeanUtils;
 import com.rslakra.appsuite.core.Payload;
+import com.rslakra.appsuite.spring.filter.Filter;
 import com.rslakra.appsuite.spring.parser.Parser;
+import com.rslakra.appsuite.spring.parser.RowErrors;
+import com.rslakra.appsuite.spring.parser.csv.CSVUtils;
 import com.rslakra.appsuite.spring.parser.csv.CsvParser;
 import com.rslakra.appsuite.spring.parser.excel.ExcelParser;
 import com.rslakra.appsuite.spring.service.AbstractService;
+import com.rslakra.appsuite.spring.service.ImportCheckpointStore;
+import com.rslakra.appsuite.spring.service.ImportPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * @author Rohtash Lakra
@@ -30,6 +47,7 @@ import java.util.Objects;
 public abstract class AbstractWebController<T, ID extends Serializable> implements WebController<T, ID> {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractWebController.class);
+    public static final int DOWNLOAD_PAGE_SIZE = 1000;
     
     private String prefix;
     private Class<T> objectType;
@@ -53,7 +71,96 @@ public abstract class AbstractWebController<T, ID extends Serializable> implemen
     }
     
     /**
-     * Uploads the file of <code>Roles</code>.
+     * Returns the number of the objects created per batch of the uploads.
+     *
+     * @return
+     */
+    protected int getImportBatchSize() {
+        return ImportPipeline.DEFAULT_BATCH_SIZE;
+    }
+    
+    /**
+     * Returns the pipeline, which validates and creates the uploaded objects in batches while the file is parsed.
+     *
+     * @return
+     */
+    protected ImportPipeline<T> newImportPipeline() {
+        return new ImportPipeline<>(service, getImportBatchSize(), ImportPipeline.DEFAULT_QUEUE_CAPACITY,
+                                    getImportCheckpointStore(), getImportJobScope());
+    }
+    
+    /**
+     * Returns the scope of the job ids of the resumable uploads, so the same <code>jobId</code> of the different
+     * controllers doesn't collide. Defaults to the name of the controller class.
+     *
+     * @return
+     */
+    protected String getImportJobScope() {
+        return ClassUtils.getUserClass(getClass()).getName();
+    }
+    
+    /**
+     * Returns the store of the checkpoints of the resumable uploads, which must save each checkpoint in the
+     * transaction of its batch, like the <code>JdbcImportCheckpointStore</code> on the database of the entities. There
+     * is no default store, the resumable uploads are rejected until it's provided.
+     *
+     * @return
+     */
+    protected ImportCheckpointStore getImportCheckpointStore() {
+        return null;
+    }
+    
+    /**
+     * Returns the maximum number of the rejected rows reported per upload. The CSV uploads skip the invalid rows and
+     * report them, unless it's 0, which fails the upload on the first invalid row.
+     *
+     * @return
+     */
+    protected int getMaxImportErrors() {
+        return RowErrors.DEFAULT_MAX_ERRORS;
+    }
+    
+    /**
+     * Imports the objects of the CSV <code>file</code>. The large files are memory-mapped from a local copy (the
+     * multipart files already spooled to the disk are moved to the copy), instead of being read through the stream.
+     * The rows which can't be read are added to the <code>rowErrors</code>, if provided. The created objects are
+     * counted in the <code>created</code>.
+     *
+     * @param csvParser
+     * @param file
+     * @param importPipeline
+     * @param jobId
+     * @param rowErrors
+     * @param created
+     * @return
+     * @throws IOException
+     */
+    private long importCSVFile(CsvParser<T> csvParser, MultipartFile file, ImportPipeline<T> importPipeline,
+                               String jobId, RowErrors rowErrors, AtomicLong created) throws IOException {
+        if (file.getSize() <= CsvParser.PARALLEL_CHUNK_SIZE) {
+            return importPipeline.importAll(csvParser.streamCSVStream(file.getInputStream(), rowErrors), jobId,
+                                            created);
+        }
+
+        final Path csvPath = Files.createTempFile("upload-", ".csv");
+        try {
+            file.transferTo(csvPath);
+            return importPipeline.importAll(csvParser.streamCSVFile(csvPath, rowErrors), jobId, created);
+        } finally {
+            try {
+                Files.deleteIfExists(csvPath);
+            } catch (IOException ex) {
+                LOGGER.warn("Could not delete the file:{}!", csvPath, ex);
+            }
+        }
+    }
+    
+    /**
+     * Uploads the file of <code>Roles</code>. The objects are validated and created in batches while the file is
+     * parsed, so the memory doesn't grow with the size of the file. The rows of the CSV files which can't be read are
+     * skipped, and reported in the <code>rejected</code> count and the <code>errors</code> (line number, column and
+     * reason) of the payload. The batches created before a failure stay created, and the failed payload reports their
+     * <code>created</code> count (and the <code>jobId</code> of the resumable uploads).
      *
      * @param file
      * @return
@@ -61,26 +168,88 @@ public abstract class AbstractWebController<T, ID extends Serializable> implemen
     @PostMapping("/upload")
     @Override
     public ResponseEntity<Payload> upload(@RequestParam("file") MultipartFile file) {
+        return uploadFile(file, null);
+    }
+    
+    /**
+     * Uploads the file of <code>Roles</code> as the <code>jobId</code> import job, which is checkpointed after each
+     * created batch. If the upload fails (or the application stops), uploading the same file with the same
+     * <code>jobId</code> resumes after the objects already created, instead of creating them again, and uploading a
+     * completed job again returns the count of its objects. The <code>created</code> count is of all the runs of the
+     * job. The <code>jobId</code> must identify the file, like its checksum. Requires the
+     * <code>getImportCheckpointStore()</code>.
+     *
+     * @param file
+     * @param jobId
+     * @return
+     */
+    @PostMapping("/upload/resumable")
+    public ResponseEntity<Payload> uploadResumable(@RequestParam("file") MultipartFile file,
+                                                   @RequestParam("jobId") String jobId) {
+        BeanUtils.assertNonNull(jobId, "Upload 'jobId' must provide!");
+        if (BeanUtils.isNull(getImportCheckpointStore())) {
+            Payload payload = Payload.newBuilder();
+            payload.withMessage("The resumable uploads are not configured!");
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(payload);
+        }
+
+        return uploadFile(file, jobId);
+    }
+    
+    /**
+     * Uploads the file as the <code>jobId</code> import job, if not <code>null</code>.
+     *
+     * @param file
+     * @param jobId
+     * @return
+     */
+    private ResponseEntity<Payload> uploadFile(MultipartFile file, String jobId) {
         BeanUtils.assertNonNull(file, "Upload 'file' must provide!");
         Payload payload = Payload.newBuilder();
+        // the objects created so far, which stay created if the upload fails
+        final AtomicLong created = new AtomicLong();
         try {
-            List<T> listObjects = null;
+            Long count = null;
+            RowErrors rowErrors = null;
             Parser parser = getParser();
             if (CsvParser.isCSVFile(file)) {
-                listObjects = ((CsvParser) parser).readCSVStream(file.getInputStream());
+                rowErrors = (getMaxImportErrors() > 0 ? new RowErrors(getMaxImportErrors()) : null);
+                count = importCSVFile((CsvParser<T>) parser, file, newImportPipeline(), jobId, rowErrors, created);
             } else if (ExcelParser.isExcelFile(file)) {
-                listObjects = ((ExcelParser) parser).readStream(file.getInputStream());
+                ExcelParser<T> excelParser = (ExcelParser<T>) parser;
+                List<String> sheetNames = excelParser.getReadSheetNames();
+                if (!Collections.singletonList(excelParser.getSheetName()).equals(sheetNames)) {
+                    // the rows of the sheets are streamed one sheet after the other
+                    count = newImportPipeline().importAll(excelParser.streamSheets(file.getInputStream(), sheetNames),
+                                                          jobId, created);
+                } else if (excelParser.isStreamingReader()) {
+                    count = newImportPipeline().importAll(excelParser.streamExcelStream(file.getInputStream()), jobId,
+                                                          created);
+                } else {
+                    List<T> listObjects = excelParser.readStream(file.getInputStream());
+                    count = newImportPipeline().importAll(listObjects.iterator(), jobId, created);
+                }
             }
             
-            // check the task list is available
-            if (Objects.nonNull(listObjects)) {
-                listObjects = service.create(listObjects);
-                LOGGER.debug("listObjects: {}", listObjects);
+            // check the file is imported
+            if (Objects.nonNull(count)) {
+                LOGGER.debug("Created {} objects of the file:{}", count, file.getOriginalFilename());
+                payload.ofPair("created", count);
+                if (Objects.nonNull(rowErrors) && !rowErrors.isEmpty()) {
+                    LOGGER.warn("Rejected {} rows of the file:{}", rowErrors.getCount(), file.getOriginalFilename());
+                    payload.ofPair("rejected", rowErrors.getCount());
+                    payload.ofPair("errors", rowErrors.getErrors());
+                }
                 payload.withMessage("Uploaded the file '%s' successfully!", file.getOriginalFilename());
                 return ResponseEntity.status(HttpStatus.OK).body(payload);
             }
         } catch (Exception ex) {
-            LOGGER.error("Could not upload the file:{}!", file.getOriginalFilename(), ex);
+            LOGGER.error("Could not upload the file:{}, created: {}!", file.getOriginalFilename(), created.get(), ex);
+            // the batches committed before the failure stay created, the job resumes after them
+            payload.ofPair("created", created.get());
+            if (Objects.nonNull(jobId)) {
+                payload.ofPair("jobId", jobId);
+            }
             payload.withMessage("Could not upload the file '%s'!", file.getOriginalFilename());
             return ResponseEntity.status(HttpStatus.EXPECTATION_FAILED).body(payload);
         }
@@ -89,6 +258,17 @@ public abstract class AbstractWebController<T, ID extends Serializable> implemen
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(payload);
     }
     
+    /**
+     * Returns the first page of the objects of the streamed downloads, which are fetched one page at a time. The
+     * default pages of <code>DOWNLOAD_PAGE_SIZE</code> objects are sorted by the <code>id</code>, so the pages are
+     * stable.
+     *
+     * @return
+     */
+    protected Pageable getDownloadPageable() {
+        return PageRequest.of(0, DOWNLOAD_PAGE_SIZE, Sort.by(Filter.ID));
+    }
+    
     /**
      * Displays the download UI for <code>T</code> objects.
      *
@@ -100,14 +280,28 @@ public abstract class AbstractWebController<T, ID extends Serializable> implemen
     }
     
     /**
-     * Downloads the object of <code>T</code> as <code>fileType</code> file.
+     * Downloads the object of <code>T</code> as uncompressed <code>fileType</code> file.
      *
      * @param fileType
      * @return
      */
-    @GetMapping("/download")
     @Override
-    public ResponseEntity<Resource> download(@RequestParam("fileType") String fileType) {
+    public ResponseEntity<Resource> download(String fileType) {
+        return download(fileType, null);
+    }
+    
+    /**
+     * Downloads the object of <code>T</code> as <code>fileType</code> file. The CSV file is compressed with gzip (or
+     * deflate), if the client accepts it.
+     *
+     * @param fileType
+     * @param acceptEncoding
+     * @return
+     */
+    @GetMapping("/download")
+    public ResponseEntity<Resource> download(@RequestParam("fileType") String fileType,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                                                 required = false) String acceptEncoding) {
         BeanUtils.assertNonNull(fileType, "Download 'fileType' must provide!");
         ResponseEntity responseEntity = null;
         InputStreamResource inputStreamResource = null;
@@ -118,7 +312,9 @@ public abstract class AbstractWebController<T, ID extends Serializable> implemen
             if (CsvParser.isCSVFileType(fileType)) {
                 contentDisposition = Parser.getContentDisposition(parser.getDownloadFileName());
                 mediaType = Parser.getMediaType(CsvParser.CSV_MEDIA_TYPE);
-                inputStreamResource = ((CsvParser) parser).buildCSVResourceStream(service.getAll());
+                final String encoding = CSVUtils.acceptedEncoding(acceptEncoding);
+                inputStreamResource = ((CsvParser) parser).buildCSVResourceStream(service.getAll(), encoding);
+                return Parser.buildOKResponse(contentDisposition, mediaType, encoding, inputStreamResource);
             } else if (ExcelParser.isExcelFileType(fileType)) {
                 contentDisposition = Parser.getContentDisposition(parser.getDownloadFileName());
                 mediaType = Parser.getMediaType(ExcelParser.EXCEL_MEDIA_TYPE);
@@ -137,4 +333,53 @@ public abstract class AbstractWebController<T, ID extends Serializable> implemen
         
         return responseEntity;
     }
+    
+    /**
+     * Downloads the objects of <code>T</code> as <code>fileType</code> file. The objects are fetched from the service
+     * one page at a time (see <code>getDownloadPageable</code>) and the rows of each page are written to the response
+     * as it arrives, so only a page of the objects is in the memory. The CSV file is compressed on the fly with gzip
+     * (or deflate), if the client accepts it. The Excel rows are buffered in the temporary file of the sheet, which is
+     * zipped to the response.
+     *
+     * @param fileType
+     * @param acceptEncoding
+     * @return
+     */
+    @GetMapping("/download/stream")
+    public ResponseEntity<StreamingResponseBody> streamDownload(@RequestParam("fileType") String fileType,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                                                                    required = false) String acceptEncoding) {
+        BeanUtils.assertNonNull(fileType, "Download 'fileType' must provide!");
+        final Parser<T> parser = getParser();
+        if (CsvParser.isCSVFileType(fileType)) {
+            final String encoding = CSVUtils.acceptedEncoding(acceptEncoding);
+            final StreamingResponseBody responseBody = outputStream -> {
+                if (BeanUtils.isNull(encoding)) {
+                    parser.writeStream(outputStream, service.getAllInPages(getDownloadPageable()));
+                } else {
+                    final DeflaterOutputStream compressedStream = CSVUtils.compressing(outputStream, encoding);
+                    parser.writeStream(compressedStream, service.getAllInPages(getDownloadPageable()));
+                    compressedStream.finish();
+                }
+            };
+
+            final ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, Parser.getContentDisposition(parser.getDownloadFileName()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(Parser.getMediaType(CsvParser.CSV_MEDIA_TYPE));
+            if (BeanUtils.isNotNull(encoding)) {
+                bodyBuilder.header(HttpHeaders.CONTENT_ENCODING, encoding);
+            }
+
+            return bodyBuilder.body(responseBody);
+        } else if (ExcelParser.isExcelFileType(fileType)) {
+            // the workbook is already compressed
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, Parser.getContentDisposition(parser.getDownloadFileName()))
+                .contentType(Parser.getMediaType(ExcelParser.EXCEL_MEDIA_TYPE))
+                .body(outputStream -> parser.writeStream(outputStream, service.getAllInPages(getDownloadPageable())));
+        }
+
+        throw new UnsupportedOperationException("Unsupported fileType:" + fileType);
+    }
 }
@@ -3,9 +3,21 @@ package com.rslakra.appsuite.spring.filter;
 import com.rslakra.appsuite.core.BeanUtils;
 import com.rslakra.appsuite.core.Payload;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * @author Rohtash Lakra
@@ -21,8 +33,24 @@ public abstract class AbstractFilter<E> implements Filter<E> {
     public static final String MIDDLE_NAME = "middleName";
     public static final String LAST_NAME = "lastName";
     public static final String NAME = "name";
+    // lists larger than this are split across the fork-join pool
+    static final int PARALLEL_THRESHOLD = 8192;
+    // the criteria are reordered by their rank after these many evaluations
+    static final int REORDER_INTERVAL = 1024;
+    // one in these many apply calls records the statistics of the criteria
+    static final int SAMPLE_INTERVAL = 64;
+    private static final Comparator<Criterion> BY_RANK = Comparator.comparingDouble(Criterion::getRank).reversed();
+    private static final AtomicReferenceFieldUpdater<AbstractFilter, Criterion[]> CRITERIA =
+        AtomicReferenceFieldUpdater.newUpdater(AbstractFilter.class, Criterion[].class, "criteria");
+    private static final AtomicIntegerFieldUpdater<AbstractFilter> EVALUATIONS =
+        AtomicIntegerFieldUpdater.newUpdater(AbstractFilter.class, "evaluations");
 
-    private final Payload<String, Object> payload;
+    // never modified in place, the rebuild replaces it
+    private volatile Payload<String, Object> payload;
+    // criteria compiled from the payload, reset on rebuild
+    private transient volatile Criterion[] criteria;
+    // evaluations since the last reorder
+    private transient volatile int evaluations;
 
     /**
      * The payload is initialized with the provided <code>Payload<String, V></code> params.
@@ -52,17 +80,108 @@ public abstract class AbstractFilter<E> implements Filter<E> {
         return String.format(INVALID_TYPE_MESSAGE, value, value.getClass(), classType);
     }
 
+    /**
+     * Returns true if the criteria are reordered by their observed selectivity. The filters of a fixed order run the
+     * cheapest criteria first and never update the statistics of the criteria.
+     *
+     * @return
+     */
+    boolean isAdaptive() {
+        return true;
+    }
+
+    /**
+     * Returns the criteria compiled from the payload. The property accessors of the criteria are resolved once per
+     * element class and reused across the <code>apply</code> calls.
+     *
+     * @return
+     */
+    Criterion[] getCriteria() {
+        Criterion[] current = criteria;
+        if (current == null) {
+            // compiled under the lock, so a concurrent rebuild can't publish the criteria of the old payload
+            synchronized (this) {
+                current = criteria;
+                if (current == null) {
+                    current = payload.entrySet().stream()
+                        .map(entry -> new Criterion(entry.getKey(), entry.getValue()))
+                        .sorted(Comparator.comparingInt(Criterion::getCost))
+                        .toArray(Criterion[]::new);
+                    criteria = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Returns the payload of the filter.
+     *
+     * @return
+     */
+    Payload<String, Object> getPayload() {
+        return payload;
+    }
+
+    /**
+     * Replaces the payload with a copy of the <code>allParams</code> params. The payload is swapped as a whole, so
+     * the threads sharing the filter see either the old or the new criteria, never a half-rebuilt payload.
+     *
+     * @param allParams
+     */
+    private void replacePayload(Map<String, Object> allParams) {
+        final Payload<String, Object> newPayload = Payload.newBuilder();
+        if (BeanUtils.isNotNull(allParams)) {
+            newPayload.putAll(allParams);
+        }
+
+        synchronized (this) {
+            payload = newPayload;
+            criteria = null;
+        }
+    }
+
+    /**
+     * Records the <code>count</code> evaluations of the <code>current</code> criteria and periodically reorders
+     * them, so the criteria rejecting the most elements per cost run first.
+     *
+     * @param current
+     * @param count
+     */
+    private void recordEvaluations(Criterion[] current, int count) {
+        // only the thread resetting the count reorders
+        if (EVALUATIONS.addAndGet(this, count) >= REORDER_INTERVAL
+            && EVALUATIONS.getAndSet(this, 0) >= REORDER_INTERVAL) {
+            if (current.length > 1) {
+                final Criterion[] reordered = current.clone();
+                Arrays.sort(reordered, BY_RANK);
+                for (Criterion criterion : reordered) {
+                    criterion.decay();
+                }
+
+                // a concurrent rebuild wins over the reorder
+                CRITERIA.compareAndSet(this, current, reordered);
+            }
+        }
+    }
+
     /**
      * Applies the filter on the provided <code>E</code>.
      * <p>
      * This implementation checks if the element matches all filter criteria defined in the payload.
      * For each key-value pair in the filter payload, it extracts the corresponding property from
-     * the element and compares it with the filter value. Returns true only if all criteria match.
+     * the element through the cached accessor of the element class and compares it with the filter value.
+     * Returns true only if all criteria match.
      * </p>
      * <p>
      * If the element is null, returns false. If the payload is empty, returns true (no criteria means all match).
      * If a property doesn't exist on the element or cannot be read, that criterion is considered a mismatch.
      * </p>
+     * <p>
+     * Only a sample of the calls records the statistics of the criteria, so the threads sharing the filter don't
+     * write the shared statistics per element.
+     * </p>
      *
      * @param e the element to filter
      * @return true if the element matches all filter criteria, false otherwise
@@ -75,26 +194,18 @@ public abstract class AbstractFilter<E> implements Filter<E> {
         }
 
         // Empty payload means no filter criteria, so everything matches
-        if (payload.isEmpty()) {
+        final Criterion[] currentCriteria = getCriteria();
+        if (currentCriteria.length == 0) {
             return true;
         }
 
-        // Check each filter criterion
-        for (Map.Entry<String, Object> entry : payload.entrySet()) {
-            String key = entry.getKey();
-            Object filterValue = entry.getValue();
-
-            try {
-                // Try to read the property from the element
-                Object elementValue = BeanUtils.readObjectProperty(e, key);
+        if (isAdaptive() && ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) == 0) {
+            return applySampled(currentCriteria, e);
+        }
 
-                // Compare values using BeanUtils.equals which handles null, BigDecimal, Date, etc.
-                if (!BeanUtils.equals(elementValue, filterValue)) {
-                    return false;
-                }
-            } catch (Exception ex) {
-                // Property doesn't exist or cannot be read - consider it a mismatch
-                // This handles cases where the element doesn't have the property
+        // Check each filter criterion through its compiled property accessor, the most selective first
+        for (Criterion criterion : currentCriteria) {
+            if (!criterion.test(e)) {
                 return false;
             }
         }
@@ -103,6 +214,184 @@ public abstract class AbstractFilter<E> implements Filter<E> {
         return true;
     }
 
+    /**
+     * Applies the <code>current</code> criteria on the <code>element</code> and records their statistics, weighted
+     * as the <code>SAMPLE_INTERVAL</code> evaluations the sample stands for.
+     *
+     * @param current
+     * @param element
+     * @return
+     */
+    private boolean applySampled(Criterion[] current, E element) {
+        boolean matched = true;
+        for (int index = 0; index < current.length && matched; index++) {
+            matched = current[index].test(element);
+            current[index].recordStatistics(SAMPLE_INTERVAL, (matched ? 0 : SAMPLE_INTERVAL));
+        }
+
+        recordEvaluations(current, SAMPLE_INTERVAL);
+        return matched;
+    }
+
+    /**
+     * Applies the filter on all the provided <code>elements</code> and returns the indexes of the matching elements.
+     * <p>
+     * The criteria are evaluated column-at-a-time: the first criterion is checked on all the elements, then the next
+     * criterion only on the survivors and so on. The lists larger than <code>PARALLEL_THRESHOLD</code> are split into
+     * ranges (aligned to the 64 bits of the words of the result) evaluated on the common fork-join pool, each range
+     * writing only its own words of the shared result.
+     * </p>
+     *
+     * @param elements the elements to filter
+     * @return the indexes of the elements matching all filter criteria
+     */
+    @Override
+    public BitSet applyAll(List<E> elements) {
+        if (BeanUtils.isNull(elements) || elements.isEmpty()) {
+            return new BitSet();
+        }
+
+        // indexed access is required to evaluate the ranges
+        final List<E> indexedElements = (elements instanceof RandomAccess ? elements : new ArrayList<>(elements));
+        final Criterion[] currentCriteria = getCriteria();
+        final long[] words = new long[wordIndex(indexedElements.size() - 1) + 1];
+        final boolean adaptive = isAdaptive();
+        if (indexedElements.size() > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(
+                new ApplyAllTask(currentCriteria, indexedElements, 0, indexedElements.size(), words, adaptive));
+        } else {
+            applyAll(currentCriteria, indexedElements, 0, indexedElements.size(), words, adaptive);
+        }
+
+        if (adaptive) {
+            recordEvaluations(currentCriteria, indexedElements.size());
+        }
+
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Returns the index of the word of the bit of the <code>index</code>.
+     *
+     * @param index
+     * @return
+     */
+    private static int wordIndex(int index) {
+        return (index >>> 6);
+    }
+
+    /**
+     * Applies the <code>criteria</code> column-at-a-time on the <code>[fromIndex, toIndex)</code> range of the
+     * <code>elements</code> and sets the bits of the matching elements in the <code>words</code>. Only the words of
+     * the range are written, so the ranges starting at the word boundaries can be evaluated concurrently.
+     * <p>
+     * The rejections are counted locally and recorded once per criterion of the range, if <code>recording</code>.
+     * </p>
+     *
+     * @param criteria
+     * @param elements
+     * @param fromIndex
+     * @param toIndex
+     * @param words
+     * @param recording
+     */
+    static void applyAll(Criterion[] criteria, List<?> elements, int fromIndex, int toIndex, long[] words,
+                         boolean recording) {
+        // Null elements don't match any filter
+        boolean empty = true;
+        for (int index = fromIndex; index < toIndex; index++) {
+            if (BeanUtils.isNotNull(elements.get(index))) {
+                words[wordIndex(index)] |= (1L << index);
+                empty = false;
+            }
+        }
+
+        // Check each criterion over the survivors of the previous ones
+        final int fromWord = wordIndex(fromIndex);
+        final int toWord = wordIndex(toIndex - 1);
+        for (int criterionIndex = 0; criterionIndex < criteria.length && !empty; criterionIndex++) {
+            final Criterion criterion = criteria[criterionIndex];
+            long evaluated = 0;
+            long rejected = 0;
+            empty = true;
+            for (int position = fromWord; position <= toWord; position++) {
+                long word = words[position];
+                for (long bits = word; bits != 0; bits &= (bits - 1)) {
+                    final int bitIndex = Long.numberOfTrailingZeros(bits);
+                    evaluated++;
+                    if (!criterion.test(elements.get((position << 6) + bitIndex))) {
+                        word &= ~(1L << bitIndex);
+                        rejected++;
+                    }
+                }
+
+                words[position] = word;
+                empty &= (word == 0);
+            }
+
+            if (recording) {
+                criterion.recordStatistics(evaluated, rejected);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the criteria on a range of the elements, splitting the large ranges in halves at the word
+     * boundaries.
+     */
+    private static final class ApplyAllTask extends RecursiveAction {
+
+        private final Criterion[] criteria;
+        private final List<?> elements;
+        private final int fromIndex;
+        private final int toIndex;
+        private final long[] words;
+        private final boolean recording;
+
+        /**
+         * @param criteria
+         * @param elements
+         * @param fromIndex
+         * @param toIndex
+         * @param words
+         * @param recording
+         */
+        ApplyAllTask(Criterion[] criteria, List<?> elements, int fromIndex, int toIndex, long[] words,
+                     boolean recording) {
+            this.criteria = criteria;
+            this.elements = elements;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.words = words;
+            this.recording = recording;
+        }
+
+        /**
+         * Evaluates the range, or its halves in parallel.
+         */
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= PARALLEL_THRESHOLD) {
+                applyAll(criteria, elements, fromIndex, toIndex, words, recording);
+            } else {
+                // the halves never share a word of the result
+                final int middleIndex = ((fromIndex + toIndex) >>> 1) & ~(Long.SIZE - 1);
+                invokeAll(new ApplyAllTask(criteria, elements, fromIndex, middleIndex, words, recording),
+                          new ApplyAllTask(criteria, elements, middleIndex, toIndex, words, recording));
+            }
+        }
+    }
+
+    /**
+     * Returns the immutable snapshot of the current criteria of the filter.
+     *
+     * @return
+     */
+    @Override
+    public CompiledFilter<E> freeze() {
+        return new CompiledFilter<>(payload);
+    }
+
     /**
      * Returns true if the filter contains the provided <code>key</code>.
      *
@@ -126,6 +415,16 @@ public abstract class AbstractFilter<E> implements Filter<E> {
         return (BeanUtils.isNotEmpty(keys) && payload.keySet().containsAll(Arrays.asList(keys)));
     }
 
+    /**
+     * Returns the keys of the filter criteria.
+     *
+     * @return
+     */
+    @Override
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(payload.keySet());
+    }
+
     /**
      * Returns the value of the provided <code>key</code>.
      *
@@ -212,34 +511,28 @@ public abstract class AbstractFilter<E> implements Filter<E> {
      * Rebuilds the filter with the provided <code>Payload<String, Object></code> params.
      * <p>
      * This method allows reusing the same filter object with different filter criteria.
-     * The existing payload is cleared and repopulated with the new parameters.
+     * The existing payload is replaced with the new parameters.
      * </p>
      *
      * @param allParams the new filter parameters
      */
     @Override
     public void rebuild(Payload<String, Object> allParams) {
-        payload.clear();
-        if (BeanUtils.isNotNull(allParams)) {
-            payload.putAll(allParams);
-        }
+        replacePayload(allParams);
     }
 
     /**
      * Rebuilds the filter with the provided <code>Map<String, Object></code> params.
      * <p>
      * This method allows reusing the same filter object with different filter criteria.
-     * The existing payload is cleared and repopulated with the new parameters.
+     * The existing payload is replaced with the new parameters.
      * </p>
      *
      * @param allParams the new filter parameters
      */
     @Override
     public void rebuild(Map<String, Object> allParams) {
-        payload.clear();
-        if (BeanUtils.isNotNull(allParams)) {
-            payload.putAll(allParams);
-        }
+        replacePayload(allParams);
     }
 
 }
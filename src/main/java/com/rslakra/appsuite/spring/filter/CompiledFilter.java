@@ -0,0 +1,234 @@
+package com.rslakra.appsuite.spring.filter;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.core.Payload;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The immutable snapshot of the filter criteria.
+ * <p>
+ * The criteria are compiled once when the snapshot is created, in a fixed order (the cheapest first) which is never
+ * reordered and without the statistics of the criteria, so the snapshot is safe to share across the threads and to
+ * cache. The <code>equals</code>/<code>hashCode</code> are computed from the criteria regardless of their
+ * order, which makes the snapshots usable as cache keys.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 11:48 AM
+ */
+public final class CompiledFilter<E> extends AbstractFilter<E> {
+
+    private final int hashCode;
+
+    /**
+     * The snapshot of the provided <code>Map<String, V></code> params. The array, collection and map values are
+     * copied, so changing them later doesn't change the snapshot (or its hash code).
+     *
+     * @param allParams
+     */
+    public CompiledFilter(Map<String, Object> allParams) {
+        super(copyOf(allParams));
+        hashCode = hashCodeOf(getPayload());
+        // compile the criteria eagerly
+        getCriteria();
+    }
+
+    /**
+     * Returns the snapshot of the criteria of the provided <code>filter</code>.
+     *
+     * @param filter
+     * @param <E>
+     * @return
+     */
+    public static <E> CompiledFilter<E> of(Filter<E> filter) {
+        BeanUtils.assertNonNull(filter, "The filter should not be null!");
+        if (filter instanceof CompiledFilter) {
+            return (CompiledFilter<E>) filter;
+        }
+
+        final Map<String, Object> allParams = new HashMap<>();
+        for (String key : filter.getKeys()) {
+            allParams.put(key, filter.getValue(key));
+        }
+
+        return new CompiledFilter<>(allParams);
+    }
+
+    /**
+     * Returns the copy of the <code>allParams</code> with the copies of their values.
+     *
+     * @param allParams
+     * @return
+     */
+    private static Map<String, Object> copyOf(Map<String, Object> allParams) {
+        final Map<String, Object> copy = new HashMap<>();
+        if (BeanUtils.isNotNull(allParams)) {
+            for (Map.Entry<String, Object> entry : allParams.entrySet()) {
+                copy.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Returns the deep copy of the array values and the unmodifiable deep copy of the collection and map values. The
+     * other values are returned as is.
+     *
+     * @param value
+     * @return
+     */
+    private static Object copyOf(Object value) {
+        if (BeanUtils.isNull(value)) {
+            return null;
+        } else if (value instanceof Object[]) {
+            final Object[] copy = ((Object[]) value).clone();
+            final Class<?> componentType = copy.getClass().getComponentType();
+            for (int index = 0; index < copy.length; index++) {
+                final Object element = copyOf(copy[index]);
+                if (componentType.isInstance(element)) {
+                    copy[index] = element;
+                }
+            }
+
+            return copy;
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            final Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+            return copy;
+        } else if (value instanceof Set) {
+            final Set<Object> copy = new LinkedHashSet<>();
+            ((Set<?>) value).forEach(element -> copy.add(copyOf(element)));
+            return Collections.unmodifiableSet(copy);
+        } else if (value instanceof Collection) {
+            final List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            ((Collection<?>) value).forEach(element -> copy.add(copyOf(element)));
+            return Collections.unmodifiableList(copy);
+        } else if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, element) -> copy.put(key, copyOf(element)));
+            return Collections.unmodifiableMap(copy);
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the order-independent hash code of the criteria. The array values are hashed by content.
+     *
+     * @param allParams
+     * @return
+     */
+    private static int hashCodeOf(Map<String, Object> allParams) {
+        int hashCode = 0;
+        for (Map.Entry<String, Object> entry : allParams.entrySet()) {
+            hashCode += Objects.hashCode(entry.getKey()) ^ Arrays.deepHashCode(new Object[]{entry.getValue()});
+        }
+
+        return hashCode;
+    }
+
+    /**
+     * The criteria of the snapshots are never reordered.
+     *
+     * @return
+     */
+    @Override
+    boolean isAdaptive() {
+        return false;
+    }
+
+    /**
+     * Returns this snapshot.
+     *
+     * @return
+     */
+    @Override
+    public CompiledFilter<E> freeze() {
+        return this;
+    }
+
+    /**
+     * The snapshots are immutable.
+     *
+     * @param allParams the new filter parameters
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void rebuild(Payload<String, Object> allParams) {
+        throw new UnsupportedOperationException("The compiled filter can't be rebuilt!");
+    }
+
+    /**
+     * The snapshots are immutable.
+     *
+     * @param allParams the new filter parameters
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void rebuild(Map<String, Object> allParams) {
+        throw new UnsupportedOperationException("The compiled filter can't be rebuilt!");
+    }
+
+    /**
+     * Returns true if the <code>object</code> is a snapshot of the same criteria.
+     *
+     * @param object
+     * @return
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (!(object instanceof CompiledFilter)) {
+            return false;
+        }
+
+        final CompiledFilter<?> other = (CompiledFilter<?>) object;
+        if (hashCode != other.hashCode || getPayload().size() != other.getPayload().size()) {
+            return false;
+        }
+
+        for (Map.Entry<String, Object> entry : getPayload().entrySet()) {
+            if (!other.hasKey(entry.getKey())
+                || !Objects.deepEquals(entry.getValue(), other.getValue(entry.getKey()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the hash code of the criteria.
+     *
+     * @return
+     */
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return "CompiledFilter <" + getPayload() + ">";
+    }
+}
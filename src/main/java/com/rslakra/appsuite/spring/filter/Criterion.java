@@ -0,0 +1,320 @@
+package com.rslakra.appsuite.spring.filter;
+
+import com.rslakra.appsuite.core.BeanUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A single <code>key=value</code> criterion of the filter payload. The key is the property with an optional
+ * <code>Operator</code> suffix.
+ * <p>
+ * The criterion is bound once per element class to the property accessor and to the operands converted to the type
+ * of the property, so the evaluation per element is a getter call and a compare without allocations.
+ * </p>
+ * <p>
+ * The criterion keeps the number of the evaluated and the rejected elements, which the filter uses to run the most
+ * selective and the cheapest criteria first. The callers count them locally and record them in bulk, so the shared
+ * statistics aren't written per element.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 9:40 AM
+ */
+final class Criterion {
+
+    // the value of the missing properties
+    private static final Object MISSING = new Object();
+    private static final AtomicLongFieldUpdater<Criterion> EVALUATED =
+        AtomicLongFieldUpdater.newUpdater(Criterion.class, "evaluated");
+    private static final AtomicLongFieldUpdater<Criterion> REJECTED =
+        AtomicLongFieldUpdater.newUpdater(Criterion.class, "rejected");
+
+    private final String key;
+    private final Object value;
+    private final String property;
+    private final Operator operator;
+    private final int depth;
+    // bindings per element class, and the binding of the first evaluated element class
+    private final ConcurrentMap<Class<?>, Binding> bindings = new ConcurrentHashMap<>();
+    private volatile Binding binding;
+    // selectivity statistics
+    private volatile long evaluated;
+    private volatile long rejected;
+
+    /**
+     * @param key
+     * @param value
+     */
+    Criterion(String key, Object value) {
+        this.key = key;
+        this.value = value;
+        this.property = Operator.propertyOf(key);
+        this.operator = Operator.of(key);
+        this.depth = depthOf(property);
+    }
+
+    /**
+     * Returns the number of the properties along the (dotted) <code>property</code> path.
+     *
+     * @param property
+     * @return
+     */
+    private static int depthOf(String property) {
+        int depth = 1;
+        for (int index = 0; index < property.length(); index++) {
+            if (property.charAt(index) == PropertyAccessor.PATH_SEPARATOR) {
+                depth++;
+            }
+        }
+
+        return depth;
+    }
+
+    /**
+     * Returns the key of the criterion.
+     *
+     * @return
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the value of the criterion.
+     *
+     * @return
+     */
+    Object getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the property of the criterion.
+     *
+     * @return
+     */
+    String getProperty() {
+        return property;
+    }
+
+    /**
+     * Returns the operator of the criterion.
+     *
+     * @return
+     */
+    Operator getOperator() {
+        return operator;
+    }
+
+    /**
+     * Returns the binding of the criterion for the class of the provided <code>element</code>. The binding of the
+     * first evaluated class is cached, the other classes are looked up without replacing it, so the lists of the mixed
+     * classes don't write the shared field on every element.
+     *
+     * @param element
+     * @return
+     */
+    private Binding bindingOf(Object element) {
+        final Binding current = binding;
+        if (current != null && current.accessor.getBeanClass() == element.getClass()) {
+            return current;
+        }
+
+        Binding classBinding = bindings.get(element.getClass());
+        if (classBinding == null) {
+            classBinding = bindings.computeIfAbsent(element.getClass(), this::bind);
+            if (current == null) {
+                binding = classBinding;
+            }
+        }
+
+        return classBinding;
+    }
+
+    /**
+     * Binds the criterion to the property of the <code>beanClass</code>.
+     *
+     * @param beanClass
+     * @return
+     */
+    private Binding bind(Class<?> beanClass) {
+        final PropertyAccessor accessor = PropertyAccessor.of(beanClass, property);
+        final Class<?> propertyType = accessor.getPropertyType();
+        switch (operator) {
+            case BETWEEN: {
+                final List<Object> operands = FilterUtils.toOperands(value);
+                if (operands.size() != 2) {
+                    throw new IllegalArgumentException("The 'between' operator requires 2 values, key=" + key);
+                }
+
+                return new Binding(accessor, FilterUtils.asType(operands.get(0), propertyType),
+                                   FilterUtils.asType(operands.get(1), propertyType), null);
+            }
+            case IN: {
+                final Set<Object> members = new HashSet<>();
+                for (Object operand : FilterUtils.toOperands(value)) {
+                    members.add(FilterUtils.keyOf(FilterUtils.asType(operand, propertyType)));
+                }
+
+                return new Binding(accessor, null, null, members);
+            }
+            case PREFIX:
+            case LIKE:
+                return new Binding(accessor, (BeanUtils.isNull(value) ? null : value.toString()), null, null);
+            case IS_NULL:
+                return new Binding(accessor, (BeanUtils.isNull(value) || Boolean.parseBoolean(value.toString())),
+                                   null, null);
+            default:
+                return new Binding(accessor, FilterUtils.keyOf(FilterUtils.asType(value, propertyType)), null, null);
+        }
+    }
+
+    /**
+     * Returns true if the property of the <code>element</code> satisfies the operator of the criterion.
+     *
+     * @param element
+     * @return
+     * @throws Exception if the getter fails
+     */
+    boolean matches(Object element) throws Exception {
+        final Binding current = bindingOf(element);
+        // the missing properties (and the null values along the paths) are a mismatch, without throwing
+        final Object elementValue = current.accessor.readValue(element, MISSING);
+        if (elementValue == MISSING) {
+            return false;
+        }
+
+        switch (operator) {
+            case NE:
+                return !BeanUtils.equals(FilterUtils.keyOf(elementValue), current.operand);
+            case GT:
+                return FilterUtils.compare(elementValue, current.operand) > 0;
+            case GE:
+                return FilterUtils.compare(elementValue, current.operand) >= 0;
+            case LT:
+                return isAtMost(FilterUtils.compare(elementValue, current.operand), -1);
+            case LE:
+                return isAtMost(FilterUtils.compare(elementValue, current.operand), 0);
+            case BETWEEN:
+                return (FilterUtils.compare(elementValue, current.operand) >= 0
+                        && isAtMost(FilterUtils.compare(elementValue, current.upperOperand), 0));
+            case IN:
+                return current.members.contains(FilterUtils.keyOf(elementValue));
+            case PREFIX:
+                return (elementValue instanceof String && BeanUtils.isNotNull(current.operand)
+                        && ((String) elementValue).startsWith((String) current.operand));
+            case LIKE:
+                return (elementValue instanceof CharSequence && BeanUtils.isNotNull(current.operand)
+                        && FilterUtils.like((CharSequence) elementValue, (String) current.operand));
+            case IS_NULL:
+                return (BeanUtils.isNull(elementValue) == (Boolean) current.operand);
+            default:
+                // Compare values using BeanUtils.equals which handles null, BigDecimal, Date, etc.
+                return BeanUtils.equals(FilterUtils.keyOf(elementValue), current.operand);
+        }
+    }
+
+    /**
+     * Returns true if the comparison <code>result</code> is comparable and at most <code>limit</code>.
+     *
+     * @param result
+     * @param limit
+     * @return
+     */
+    private static boolean isAtMost(int result, int limit) {
+        return (result != FilterUtils.INCOMPARABLE && result <= limit);
+    }
+
+    /**
+     * Returns true if the <code>element</code> matches the criterion. The properties which don't exist or whose
+     * getter fails are considered a mismatch.
+     *
+     * @param element
+     * @return
+     */
+    boolean test(Object element) {
+        try {
+            return matches(element);
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the <code>evaluatedCount</code> evaluations, of which the <code>rejectedCount</code> were rejected.
+     *
+     * @param evaluatedCount
+     * @param rejectedCount
+     */
+    void recordStatistics(long evaluatedCount, long rejectedCount) {
+        EVALUATED.addAndGet(this, evaluatedCount);
+        REJECTED.addAndGet(this, rejectedCount);
+    }
+
+    /**
+     * Returns the relative cost of evaluating the criterion.
+     *
+     * @return
+     */
+    int getCost() {
+        // each property along the path is a getter call
+        return operator.getCost() + depth - 1;
+    }
+
+    /**
+     * Returns the rank of the criterion, the higher rank criteria reject more elements per unit of cost. The rate
+     * is smoothed, so the criteria without statistics rank in the middle.
+     *
+     * @return
+     */
+    double getRank() {
+        return ((rejected + 1.0d) / (evaluated + 2.0d)) / getCost();
+    }
+
+    /**
+     * Halves the statistics, so the rank follows the recently filtered elements.
+     */
+    void decay() {
+        EVALUATED.getAndUpdate(this, count -> count >>> 1);
+        REJECTED.getAndUpdate(this, count -> count >>> 1);
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+
+    /**
+     * The accessor and the typed operands of the criterion for an element class.
+     */
+    private static final class Binding {
+
+        private final PropertyAccessor accessor;
+        private final Object operand;
+        private final Object upperOperand;
+        private final Set<Object> members;
+
+        /**
+         * @param accessor
+         * @param operand
+         * @param upperOperand
+         * @param members
+         */
+        Binding(PropertyAccessor accessor, Object operand, Object upperOperand, Set<Object> members) {
+            this.accessor = accessor;
+            this.operand = operand;
+            this.upperOperand = upperOperand;
+            this.members = members;
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.rslakra.appsuite.spring.filter;
 import com.rslakra.appsuite.core.Payload;
 
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Rohtash Lakra
@@ -21,6 +24,37 @@ public interface Filter<E> extends Serializable {
      */
     boolean apply(E e);
 
+    /**
+     * Applies the filter on all the provided <code>elements</code> and returns the indexes of the matching elements.
+     *
+     * @param elements
+     * @return
+     */
+    default BitSet applyAll(List<E> elements) {
+        final BitSet matches = new BitSet();
+        if (elements != null) {
+            int index = 0;
+            for (E element : elements) {
+                if (apply(element)) {
+                    matches.set(index);
+                }
+                index++;
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Returns the immutable, thread-safe snapshot of the filter criteria. The snapshots have a stable
+     * <code>equals</code>/<code>hashCode</code> and can be shared, cached and used as cache keys.
+     *
+     * @return
+     */
+    default CompiledFilter<E> freeze() {
+        return CompiledFilter.of(this);
+    }
+
     /**
      * Returns true if the filter contains the provided <code>key</code>.
      *
@@ -37,6 +71,17 @@ public interface Filter<E> extends Serializable {
      */
     boolean hasKeys(String... keys);
 
+    /**
+     * Returns the keys of the filter criteria. The filters which don't expose their keys can't be frozen or
+     * translated into the JPA <code>Specification</code>.
+     *
+     * @return
+     * @throws UnsupportedOperationException if the filter doesn't expose its keys
+     */
+    default Set<String> getKeys() {
+        throw new UnsupportedOperationException("The keys of the filter are not exposed!");
+    }
+
     /**
      * Returns the value of the provided <code>key</code>.
      *
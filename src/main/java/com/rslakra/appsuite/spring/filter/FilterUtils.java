@@ -0,0 +1,172 @@
+package com.rslakra.appsuite.spring.filter;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.parser.ConverterRegistry;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Rohtash Lakra
+ * @created 10/17/26 1:05 PM
+ */
+public enum FilterUtils {
+    INSTANCE;
+
+    // returned by compare() for the values which can't be ordered
+    public static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+    /**
+     * Returns the filter <code>value</code> as the <code>type</code> of the property. The request parameters are
+     * bound as <code>String</code>, which can't be compared with the typed properties. The values which can't be
+     * converted are returned as is.
+     *
+     * @param value
+     * @param type
+     * @return
+     */
+    public static Object asType(Object value, Class<?> type) {
+        if (!(value instanceof String) || BeanUtils.isNull(type)) {
+            return value;
+        }
+
+        final String text = (String) value;
+        final Class<?> targetType = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (targetType == String.class || targetType == Object.class) {
+            return text;
+        }
+
+        try {
+            final Object typedValue = ConverterRegistry.asType(text, targetType);
+            return BeanUtils.isNull(typedValue) ? text : typedValue;
+        } catch (RuntimeException ex) {
+            return text;
+        }
+    }
+
+    /**
+     * Returns the operands of the multi-value operators from a collection, an array or a comma-separated string.
+     *
+     * @param value
+     * @return
+     */
+    public static List<Object> toOperands(Object value) {
+        if (BeanUtils.isNull(value)) {
+            return Collections.emptyList();
+        } else if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            final List<Object> operands = new ArrayList<>(length);
+            for (int index = 0; index < length; index++) {
+                operands.add(Array.get(value, index));
+            }
+
+            return operands;
+        } else if (value instanceof String) {
+            final List<Object> operands = new ArrayList<>();
+            for (String operand : ((String) value).split(",")) {
+                operands.add(operand.trim());
+            }
+
+            return operands;
+        }
+
+        return Collections.singletonList(value);
+    }
+
+    /**
+     * Returns the <code>value</code> as the hash key, which is equal for the values comparing as equal. The
+     * <code>BigDecimal</code> values are stripped of their trailing zeros, so <code>1.0</code> and <code>1.00</code>
+     * are the same key (as they're equal for the <code>compare</code>).
+     *
+     * @param value
+     * @return
+     */
+    public static Object keyOf(Object value) {
+        return (value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros() : value);
+    }
+
+    /**
+     * Returns true if the integral value can be compared as <code>long</code>.
+     *
+     * @param value
+     * @return
+     */
+    private static boolean isIntegral(Object value) {
+        return (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte);
+    }
+
+    /**
+     * Compares the <code>value</code> with the <code>operand</code>. Returns <code>INCOMPARABLE</code> if any is
+     * <code>null</code> or they can't be ordered.
+     *
+     * @param value
+     * @param operand
+     * @return
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compare(Object value, Object operand) {
+        if (BeanUtils.isNull(value) || BeanUtils.isNull(operand)) {
+            return INCOMPARABLE;
+        } else if (value.getClass() == operand.getClass() && value instanceof Comparable) {
+            return Integer.signum(((Comparable) value).compareTo(operand));
+        } else if (value instanceof Number && operand instanceof Number) {
+            if (isIntegral(value) && isIntegral(operand)) {
+                return Long.compare(((Number) value).longValue(), ((Number) operand).longValue());
+            } else if (value instanceof BigDecimal || operand instanceof BigDecimal
+                       || value instanceof BigInteger || operand instanceof BigInteger) {
+                return new BigDecimal(value.toString()).compareTo(new BigDecimal(operand.toString()));
+            }
+
+            return Double.compare(((Number) value).doubleValue(), ((Number) operand).doubleValue());
+        } else if (value instanceof CharSequence && operand instanceof CharSequence) {
+            return Integer.signum(CharSequence.compare((CharSequence) value, (CharSequence) operand));
+        }
+
+        return INCOMPARABLE;
+    }
+
+    /**
+     * Returns true if the <code>text</code> matches the SQL <code>LIKE</code> pattern, where <code>%</code> matches
+     * any characters and <code>_</code> a single character. Matches without allocating.
+     *
+     * @param text
+     * @param pattern
+     * @return
+     */
+    public static boolean like(CharSequence text, String pattern) {
+        int textIndex = 0;
+        int patternIndex = 0;
+        // the positions to backtrack to after the last '%'
+        int starIndex = -1;
+        int starTextIndex = 0;
+        while (textIndex < text.length()) {
+            if (patternIndex < pattern.length()
+                && (pattern.charAt(patternIndex) == '_' || pattern.charAt(patternIndex) == text.charAt(textIndex))) {
+                textIndex++;
+                patternIndex++;
+            } else if (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '%') {
+                starIndex = patternIndex++;
+                starTextIndex = textIndex;
+            } else if (starIndex >= 0) {
+                patternIndex = starIndex + 1;
+                textIndex = ++starTextIndex;
+            } else {
+                return false;
+            }
+        }
+
+        while (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '%') {
+            patternIndex++;
+        }
+
+        return (patternIndex == pattern.length());
+    }
+}
@@ -0,0 +1,396 @@
+package com.rslakra.appsuite.spring.filter;
+
+import com.rslakra.appsuite.core.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The immutable, in-memory collection of the <code>E</code> elements with the secondary indexes on the chosen
+ * properties, for the reference data which is filtered far more often than it changes.
+ * <p>
+ * The hash indexes answer the equality (and <code>in</code>) criteria and the sorted indexes answer the equality and
+ * the range criteria. The <code>getByFilter</code> plans the filter against the indexes, intersects the posting lists
+ * of the indexed criteria and only calls <code>Filter.apply</code> on the remaining candidates. The filters without
+ * any indexed criteria scan the whole collection.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 2:45 PM
+ */
+public class IndexedCollection<E> {
+
+    // the candidates of a posting list this small are checked directly, without intersecting the other lists
+    static final int DIRECT_CHECK_SIZE = 32;
+    private static final Object MISSING = new Object();
+
+    private final List<E> elements;
+    private final Map<String, Index> hashIndexes = new HashMap<>();
+    private final Map<String, Index> sortedIndexes = new HashMap<>();
+
+    /**
+     * Builds the collection of the <code>elements</code> with the hash indexes on the <code>hashProperties</code>
+     * and the sorted indexes on the <code>sortedProperties</code>.
+     *
+     * @param elements
+     * @param hashProperties
+     * @param sortedProperties
+     */
+    public IndexedCollection(Collection<E> elements, Collection<String> hashProperties,
+                             Collection<String> sortedProperties) {
+        this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+        if (BeanUtils.isNotNull(hashProperties)) {
+            hashProperties.forEach(property -> addIndex(hashIndexes, property, buildIndex(property, new HashMap<>())));
+        }
+        if (BeanUtils.isNotNull(sortedProperties)) {
+            sortedProperties.forEach(property -> addIndex(sortedIndexes, property,
+                                                          buildIndex(property, new TreeMap<>())));
+        }
+    }
+
+    /**
+     * Builds the collection of the <code>elements</code> with the hash indexes on the <code>hashProperties</code>.
+     *
+     * @param elements
+     * @param hashProperties
+     */
+    public IndexedCollection(Collection<E> elements, String... hashProperties) {
+        this(elements, Arrays.asList(hashProperties), null);
+    }
+
+    /**
+     * Builds the index of the <code>property</code> into the provided <code>postings</code> map. The sorted indexes
+     * skip the <code>null</code> values. Returns <code>null</code> if the values are of the different classes, then
+     * the criteria of the property are evaluated by the filter.
+     *
+     * @param property
+     * @param postings
+     * @return
+     */
+    private Index buildIndex(String property, Map<Object, Postings> postings) {
+        final boolean sorted = (postings instanceof NavigableMap);
+        Class<?> keyClass = null;
+        for (int index = 0; index < elements.size(); index++) {
+            final E element = elements.get(index);
+            if (BeanUtils.isNull(element)) {
+                continue;
+            }
+
+            final Object value;
+            try {
+                value = PropertyAccessor.of(element.getClass(), property).readValue(element, MISSING);
+            } catch (Exception ex) {
+                continue;
+            }
+
+            if (value == MISSING || (sorted && BeanUtils.isNull(value))) {
+                continue;
+            } else if (BeanUtils.isNotNull(value)) {
+                if (BeanUtils.isNull(keyClass)) {
+                    keyClass = value.getClass();
+                }
+
+                // the lookups convert the operands to a single key class, the mixed values can't be indexed
+                if (keyClass != value.getClass() || (sorted && !(value instanceof Comparable))) {
+                    return null;
+                }
+            }
+
+            postings.computeIfAbsent(FilterUtils.keyOf(value), key -> new Postings()).add(index);
+        }
+
+        return new Index(keyClass, postings);
+    }
+
+    /**
+     * Adds the <code>index</code> of the <code>property</code>, if it could be built.
+     *
+     * @param indexes
+     * @param property
+     * @param index
+     */
+    private static void addIndex(Map<String, Index> indexes, String property, Index index) {
+        if (BeanUtils.isNotNull(index)) {
+            indexes.put(property, index);
+        }
+    }
+
+    /**
+     * Returns true if the <code>property</code> is indexed.
+     *
+     * @param property
+     * @return
+     */
+    public boolean isIndexed(String property) {
+        return (hashIndexes.containsKey(property) || sortedIndexes.containsKey(property));
+    }
+
+    /**
+     * Returns the number of the elements.
+     *
+     * @return
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Returns all the elements.
+     *
+     * @return
+     */
+    public List<E> getAll() {
+        return elements;
+    }
+
+    /**
+     * Returns the elements matching the <code>filter</code>, in the order of the collection.
+     *
+     * @param filter
+     * @return
+     */
+    public List<E> getByFilter(Filter<E> filter) {
+        if (BeanUtils.isNull(filter)) {
+            return elements;
+        }
+
+        final CompiledFilter<E> compiledFilter = filter.freeze();
+        final BitSet candidates = planCandidates(compiledFilter.getCriteria());
+        final List<E> matches = new ArrayList<>();
+        if (BeanUtils.isNull(candidates)) {
+            // nothing indexed, scan all
+            final BitSet allMatches = compiledFilter.applyAll(elements);
+            for (int index = allMatches.nextSetBit(0); index >= 0; index = allMatches.nextSetBit(index + 1)) {
+                matches.add(elements.get(index));
+            }
+        } else {
+            for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+                if (compiledFilter.apply(elements.get(index))) {
+                    matches.add(elements.get(index));
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Returns the candidates of the indexed criteria, or <code>null</code> if no criterion is indexed. The
+     * candidates are the intersection of the posting lists of the criteria, starting from the smallest one.
+     *
+     * @param criteria
+     * @return
+     */
+    private BitSet planCandidates(Criterion[] criteria) {
+        final List<List<Postings>> plans = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            final List<Postings> plan = planCriterion(criterion);
+            if (BeanUtils.isNotNull(plan)) {
+                plans.add(plan);
+            }
+        }
+
+        if (plans.isEmpty()) {
+            return null;
+        }
+
+        plans.sort((left, right) -> Integer.compare(sizeOf(left), sizeOf(right)));
+        final BitSet candidates = toBitSet(plans.get(0));
+        if (sizeOf(plans.get(0)) > DIRECT_CHECK_SIZE) {
+            for (int index = 1; index < plans.size() && !candidates.isEmpty(); index++) {
+                candidates.and(toBitSet(plans.get(index)));
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Returns the posting lists matching the <code>criterion</code>, or <code>null</code> if it can't be answered by
+     * the indexes.
+     *
+     * @param criterion
+     * @return
+     */
+    private List<Postings> planCriterion(Criterion criterion) {
+        final Operator operator = criterion.getOperator();
+        final Index hashIndex = hashIndexes.get(criterion.getProperty());
+        final Index sortedIndex = sortedIndexes.get(criterion.getProperty());
+        if (operator == Operator.EQ) {
+            final Index index = (BeanUtils.isNotNull(hashIndex) ? hashIndex : sortedIndex);
+            if (BeanUtils.isNotNull(index)) {
+                final Object key = index.keyOf(criterion.getValue());
+                if (key != MISSING && (BeanUtils.isNotNull(key) || index == hashIndex)) {
+                    return Collections.singletonList(index.postings.getOrDefault(key, Postings.EMPTY));
+                }
+            }
+        } else if (operator == Operator.IN && BeanUtils.isNotNull(hashIndex)) {
+            final List<Postings> plan = new ArrayList<>();
+            for (Object operand : FilterUtils.toOperands(criterion.getValue())) {
+                final Object key = hashIndex.keyOf(operand);
+                if (key == MISSING) {
+                    return null;
+                }
+                plan.add(hashIndex.postings.getOrDefault(key, Postings.EMPTY));
+            }
+
+            return plan;
+        } else if (BeanUtils.isNotNull(sortedIndex)) {
+            final NavigableMap<Object, Postings> range = sortedIndex.rangeOf(operator, criterion.getValue());
+            if (BeanUtils.isNotNull(range)) {
+                return new ArrayList<>(range.values());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the number of the elements of the posting lists.
+     *
+     * @param plan
+     * @return
+     */
+    private static int sizeOf(List<Postings> plan) {
+        int size = 0;
+        for (Postings postings : plan) {
+            size += postings.size;
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the union of the posting lists.
+     *
+     * @param plan
+     * @return
+     */
+    private BitSet toBitSet(List<Postings> plan) {
+        final BitSet bitSet = new BitSet(elements.size());
+        for (Postings postings : plan) {
+            for (int index = 0; index < postings.size; index++) {
+                bitSet.set(postings.indexes[index]);
+            }
+        }
+
+        return bitSet;
+    }
+
+    /**
+     * The index of a property, the posting lists by the property value.
+     */
+    private static final class Index {
+
+        private final Class<?> keyClass;
+        private final Map<Object, Postings> postings;
+
+        /**
+         * @param keyClass
+         * @param postings
+         */
+        Index(Class<?> keyClass, Map<Object, Postings> postings) {
+            this.keyClass = keyClass;
+            this.postings = postings;
+        }
+
+        /**
+         * Returns the <code>value</code> as the key of the index, or <code>MISSING</code> if it's not of the class
+         * of the keys, which the index can't answer. The keys are normalized like the indexed values.
+         *
+         * @param value
+         * @return
+         */
+        Object keyOf(Object value) {
+            if (BeanUtils.isNull(value)) {
+                return null;
+            } else if (BeanUtils.isNull(keyClass)) {
+                // no values indexed
+                return FilterUtils.keyOf(value);
+            }
+
+            final Object key = FilterUtils.asType(value, keyClass);
+            return (key.getClass() == keyClass ? FilterUtils.keyOf(key) : MISSING);
+        }
+
+        /**
+         * Returns the sub-map of the range criterion, or <code>null</code> if it can't be answered by the index.
+         *
+         * @param operator
+         * @param value
+         * @return
+         */
+        @SuppressWarnings("unchecked")
+        NavigableMap<Object, Postings> rangeOf(Operator operator, Object value) {
+            if (BeanUtils.isNull(keyClass)) {
+                return null;
+            }
+
+            final NavigableMap<Object, Postings> sortedPostings = (NavigableMap<Object, Postings>) postings;
+            if (operator == Operator.BETWEEN) {
+                final List<Object> operands = FilterUtils.toOperands(value);
+                if (operands.size() != 2) {
+                    return null;
+                }
+
+                final Object lowerKey = keyOf(operands.get(0));
+                final Object upperKey = keyOf(operands.get(1));
+                if (BeanUtils.isNull(lowerKey) || BeanUtils.isNull(upperKey) || lowerKey == MISSING
+                    || upperKey == MISSING) {
+                    return null;
+                } else if (FilterUtils.compare(lowerKey, upperKey) > 0) {
+                    return Collections.emptyNavigableMap();
+                }
+
+                return sortedPostings.subMap(lowerKey, true, upperKey, true);
+            }
+
+            final Object key = keyOf(value);
+            if (BeanUtils.isNull(key) || key == MISSING) {
+                return null;
+            }
+
+            switch (operator) {
+                case GT:
+                    return sortedPostings.tailMap(key, false);
+                case GE:
+                    return sortedPostings.tailMap(key, true);
+                case LT:
+                    return sortedPostings.headMap(key, false);
+                case LE:
+                    return sortedPostings.headMap(key, true);
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * The ascending indexes of the elements having the same property value.
+     */
+    private static final class Postings {
+
+        private static final Postings EMPTY = new Postings();
+
+        private int[] indexes = new int[1];
+        private int size;
+
+        /**
+         * @param index
+         */
+        void add(int index) {
+            if (size == indexes.length) {
+                indexes = Arrays.copyOf(indexes, size << 1);
+            }
+            indexes[size++] = index;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.rslakra.appsuite.spring.filter;
+
+import com.rslakra.appsuite.core.BeanUtils;
+
+/**
+ * The comparison operators of the filter criteria.
+ * <p>
+ * The operator is the suffix of the filter key separated by <code>':'</code>, like <code>age:gt=18</code> or
+ * <code>status:in=ACTIVE,LOCKED</code>. The keys without a known suffix compare for equality.
+ * </p>
+ * <ul>
+ * <li><code>eq</code>, <code>ne</code> - equal or not equal to the value.</li>
+ * <li><code>gt</code>, <code>ge</code>, <code>lt</code>, <code>le</code> - greater/less than (or equal to) the
+ * value.</li>
+ * <li><code>between</code> - within the inclusive range of the 2 values (a list, an array or <code>"low,high"</code>).
+ * </li>
+ * <li><code>in</code> - one of the values (a collection, an array or a comma-separated string).</li>
+ * <li><code>prefix</code> - starts with the value.</li>
+ * <li><code>like</code> - matches the SQL pattern, <code>%</code> for any characters and <code>_</code> for a single
+ * character.</li>
+ * <li><code>isNull</code> - is <code>null</code> when the value is <code>true</code>, else is not
+ * <code>null</code>.</li>
+ * </ul>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 12:52 PM
+ */
+public enum Operator {
+    EQ("eq", 1),
+    NE("ne", 1),
+    GT("gt", 1),
+    GE("ge", 1),
+    LT("lt", 1),
+    LE("le", 1),
+    BETWEEN("between", 2),
+    IN("in", 1),
+    PREFIX("prefix", 2),
+    LIKE("like", 4),
+    IS_NULL("isNull", 1);
+
+    public static final char SEPARATOR = ':';
+
+    private final String suffix;
+    private final int cost;
+
+    /**
+     * @param suffix
+     * @param cost
+     */
+    Operator(String suffix, int cost) {
+        this.suffix = suffix;
+        this.cost = cost;
+    }
+
+    /**
+     * Returns the key suffix of the operator.
+     *
+     * @return
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Returns the relative cost of evaluating the operator.
+     *
+     * @return
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the filter key of the <code>property</code> with this operator.
+     *
+     * @param property
+     * @return
+     */
+    public String keyOf(String property) {
+        return (this == EQ ? property : property + SEPARATOR + suffix);
+    }
+
+    /**
+     * Returns the operator of the suffix, or <code>null</code> if not an operator suffix.
+     *
+     * @param suffix
+     * @return
+     */
+    public static Operator ofSuffix(String suffix) {
+        for (Operator operator : values()) {
+            if (operator.suffix.equalsIgnoreCase(suffix)) {
+                return operator;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the operator of the filter <code>key</code>.
+     *
+     * @param key
+     * @return
+     */
+    public static Operator of(String key) {
+        final int index = (BeanUtils.isNull(key) ? -1 : key.lastIndexOf(SEPARATOR));
+        if (index > 0) {
+            final Operator operator = ofSuffix(key.substring(index + 1));
+            if (BeanUtils.isNotNull(operator)) {
+                return operator;
+            }
+        }
+
+        return EQ;
+    }
+
+    /**
+     * Returns the property of the filter <code>key</code>, without the operator suffix.
+     *
+     * @param key
+     * @return
+     */
+    public static String propertyOf(String key) {
+        final int index = (BeanUtils.isNull(key) ? -1 : key.lastIndexOf(SEPARATOR));
+        if (index > 0 && BeanUtils.isNotNull(ofSuffix(key.substring(index + 1)))) {
+            return key.substring(0, index);
+        }
+
+        return key;
+    }
+}
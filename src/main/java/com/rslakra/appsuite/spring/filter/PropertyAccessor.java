@@ -0,0 +1,317 @@
+package com.rslakra.appsuite.spring.filter;
+
+import com.rslakra.appsuite.core.BeanUtils;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled reader of a single property of the <code>beanClass</code>.
+ * <p>
+ * The accessors of all the properties of a class are resolved once and cached, so reading a property of an element
+ * is a direct getter invocation through a <code>MethodHandle</code> instead of a reflective lookup. The properties
+ * are the bean getters (except <code>getClass</code>), the accessors of the record components and the instance
+ * fields, never the other methods, as the property names come from the requests.
+ * </p>
+ * <p>
+ * The properties which don't exist on the class are a constant-time miss (an accessor which isn't
+ * <code>present</code>) instead of an exception per element, and aren't cached, so the cache is bounded by the
+ * properties of the classes. The properties of <code>Map</code> elements are read by key.
+ * </p>
+ * <p>
+ * The dotted property paths, like <code>customer.email</code>, are compiled into a chain of the accessors resolved
+ * on the declared property types (or on the runtime class of the value, when the declared type doesn't have the
+ * property). The traversal is null-safe, a <code>null</code> along the path reads as a missing property.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 9:12 AM
+ */
+public final class PropertyAccessor {
+
+    public static final char PATH_SEPARATOR = '.';
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+    // the default value of the missing properties of isReadable()
+    private static final Object MISSING = new Object();
+
+    // per-class cache of the accessors of all the properties
+    private static final ClassValue<Map<String, PropertyAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+            return compileAll(type);
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final String propertyName;
+    private final Class<?> propertyType;
+    private final MethodHandle reader;
+    private final boolean mapKey;
+    // the first property and the rest of the dotted path
+    private final PropertyAccessor head;
+    private final String tailName;
+    private final PropertyAccessor tail;
+
+    /**
+     * @param beanClass
+     * @param propertyName
+     * @param propertyType
+     * @param reader
+     */
+    private PropertyAccessor(Class<?> beanClass, String propertyName, Class<?> propertyType, MethodHandle reader) {
+        this.beanClass = beanClass;
+        this.propertyName = propertyName;
+        this.propertyType = propertyType;
+        this.reader = reader;
+        this.mapKey = Map.class.isAssignableFrom(beanClass);
+        this.head = null;
+        this.tailName = null;
+        this.tail = null;
+    }
+
+    /**
+     * The accessor of the dotted property path.
+     *
+     * @param beanClass
+     * @param propertyName
+     * @param head
+     * @param tailName
+     * @param tail
+     */
+    private PropertyAccessor(Class<?> beanClass, String propertyName, PropertyAccessor head, String tailName,
+                             PropertyAccessor tail) {
+        this.beanClass = beanClass;
+        this.propertyName = propertyName;
+        this.propertyType = (BeanUtils.isNull(tail) ? null : tail.getPropertyType());
+        this.reader = null;
+        this.mapKey = false;
+        this.head = head;
+        this.tailName = tailName;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns the cached accessor of the <code>propertyName</code> of the provided <code>beanClass</code>. The
+     * accessors of the missing properties, the map keys and the dotted paths are built per call.
+     *
+     * @param beanClass
+     * @param propertyName
+     * @return
+     */
+    public static PropertyAccessor of(Class<?> beanClass, String propertyName) {
+        BeanUtils.assertNonNull(beanClass, "The beanClass should not be null!");
+        BeanUtils.assertNonNull(propertyName, "The propertyName should not be null!");
+        final int separatorIndex = propertyName.indexOf(PATH_SEPARATOR);
+        if (separatorIndex > 0 && separatorIndex < propertyName.length() - 1) {
+            final PropertyAccessor head = of(beanClass, propertyName.substring(0, separatorIndex));
+            final String tailName = propertyName.substring(separatorIndex + 1);
+            final Class<?> headType = head.getPropertyType();
+            final PropertyAccessor tail = (BeanUtils.isNull(headType) || headType.isPrimitive())
+                                          ? null : of(headType, tailName);
+            return new PropertyAccessor(beanClass, propertyName, head, tailName, tail);
+        }
+
+        final PropertyAccessor accessor = ACCESSORS.get(beanClass).get(propertyName);
+        if (BeanUtils.isNotNull(accessor)) {
+            return accessor;
+        }
+
+        // the map elements are read by key, the missing properties as not present
+        return new PropertyAccessor(beanClass, propertyName, null, null);
+    }
+
+    /**
+     * Compiles the accessors of all the properties of the <code>beanClass</code>, from their getters (or the
+     * accessors of the record components) or else their fields. The <code>Map</code> classes have none, their
+     * elements are read by key.
+     *
+     * @param beanClass
+     * @return
+     */
+    private static Map<String, PropertyAccessor> compileAll(Class<?> beanClass) {
+        if (Map.class.isAssignableFrom(beanClass)) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, PropertyAccessor> accessors = new HashMap<>();
+        // the fields of the sub classes hide the fields of their super classes
+        for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !accessors.containsKey(field.getName())
+                    && field.trySetAccessible()) {
+                    try {
+                        final MethodHandle reader = MethodHandles.lookup().unreflectGetter(field).asType(READER_TYPE);
+                        accessors.put(field.getName(),
+                                      new PropertyAccessor(beanClass, field.getName(), field.getType(), reader));
+                    } catch (IllegalAccessException ex) {
+                        // not accessible, same as missing
+                    }
+                }
+            }
+        }
+
+        // the getters have the precedence over the fields
+        for (Map.Entry<String, Method> entry : findReadMethods(beanClass).entrySet()) {
+            final Method readMethod = entry.getValue();
+            try {
+                readMethod.trySetAccessible();
+                final MethodHandle reader = MethodHandles.lookup().unreflect(readMethod).asType(READER_TYPE);
+                accessors.put(entry.getKey(),
+                              new PropertyAccessor(beanClass, entry.getKey(), readMethod.getReturnType(), reader));
+            } catch (IllegalAccessException ex) {
+                // not accessible, same as missing
+            }
+        }
+
+        return Collections.unmodifiableMap(accessors);
+    }
+
+    /**
+     * Returns the bean getters (except the <code>getClass</code>) and the accessors of the record components of the
+     * <code>beanClass</code>, by the property name.
+     *
+     * @param beanClass
+     * @return
+     */
+    private static Map<String, Method> findReadMethods(Class<?> beanClass) {
+        final Map<String, Method> readMethods = new HashMap<>();
+        try {
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(beanClass).getPropertyDescriptors()) {
+                final Method readMethod = descriptor.getReadMethod();
+                if (BeanUtils.isNotNull(readMethod) && readMethod.getDeclaringClass() != Object.class) {
+                    readMethods.put(descriptor.getName(), readMethod);
+                }
+            }
+        } catch (IntrospectionException ex) {
+            // no bean properties
+        }
+
+        if (beanClass.isRecord()) {
+            for (RecordComponent component : beanClass.getRecordComponents()) {
+                readMethods.put(component.getName(), component.getAccessor());
+            }
+        }
+
+        return readMethods;
+    }
+
+    /**
+     * Returns the class this accessor was compiled for.
+     *
+     * @return
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * Returns the name of the property.
+     *
+     * @return
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Returns the declared type of the property (the last property of the paths), or <code>null</code> if not known
+     * (missing or map properties).
+     *
+     * @return
+     */
+    public Class<?> getPropertyType() {
+        return propertyType;
+    }
+
+    /**
+     * Returns true if the property exists on the <code>beanClass</code>. For the paths, true if the first property
+     * exists.
+     *
+     * @return
+     */
+    public boolean isPresent() {
+        if (BeanUtils.isNotNull(head)) {
+            return head.isPresent();
+        }
+
+        return (BeanUtils.isNotNull(reader) || mapKey);
+    }
+
+    /**
+     * Returns true if the property can be read from the provided <code>bean</code>.
+     *
+     * @param bean
+     * @return
+     * @throws Exception if a getter fails
+     */
+    public boolean isReadable(Object bean) throws Exception {
+        return (readValue(bean, MISSING) != MISSING);
+    }
+
+    /**
+     * Reads the value of the property from the provided <code>bean</code>. The missing properties are read as
+     * <code>null</code>, use <code>isReadable</code> to tell them apart from the <code>null</code> values.
+     *
+     * @param bean
+     * @return
+     * @throws Exception if a getter fails
+     */
+    public Object read(Object bean) throws Exception {
+        return readValue(bean, null);
+    }
+
+    /**
+     * Reads the value of the property from the provided <code>bean</code>, or returns the
+     * <code>defaultValue</code> if the property is missing (or a value along the path is <code>null</code>).
+     *
+     * @param bean
+     * @param defaultValue
+     * @return
+     * @throws Exception if a getter fails
+     */
+    @SuppressWarnings("unchecked")
+    public Object readValue(Object bean, Object defaultValue) throws Exception {
+        if (BeanUtils.isNotNull(head)) {
+            final Object value = head.readValue(bean, null);
+            if (BeanUtils.isNull(value)) {
+                return defaultValue;
+            }
+
+            // the declared type may not have the property, when its sub-type has it
+            final PropertyAccessor next = (BeanUtils.isNotNull(tail) && tail.isPresent())
+                                          ? tail : of(value.getClass(), tailName);
+            return next.readValue(value, defaultValue);
+        } else if (BeanUtils.isNull(reader)) {
+            return (mapKey ? ((Map<Object, Object>) bean).getOrDefault(propertyName, defaultValue) : defaultValue);
+        }
+
+        try {
+            return reader.invokeExact(bean);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return "PropertyAccessor <" + beanClass.getName() + "." + propertyName + ">";
+    }
+}
@@ -0,0 +1,185 @@
+package com.rslakra.appsuite.spring.parser;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * The registry of the converters of the text values (like the CSV and Excel cells) to the typed values, keyed by the
+ * target class.
+ * <p>
+ * The converter of a class is resolved once (the primitive types use the converters of their wrappers and the enums
+ * convert by name) and cached, so the conversion per value is a lookup and the parse call. The converters are
+ * thread-safe, the dates use the immutable <code>java.time</code> formatters. The applications can register the
+ * converters of their own types with <code>register</code>. The converters are kept with their classes (like the
+ * <code>PropertyAccessor</code>), so the registry doesn't pin the class loaders of the redeployed applications.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 7:30 PM
+ */
+public enum ConverterRegistry {
+    INSTANCE;
+
+    // the resolved converter of the classes without any converter
+    private static final Function<String, Object> NONE = text -> null;
+    // the legacy format of the dates, which aren't ISO-8601
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = ThreadLocal.withInitial(DateFormat::getInstance);
+
+    // the registered converter of each class
+    private static final ClassValue<AtomicReference<Function<String, ?>>> CONVERTERS = new ClassValue<>() {
+        @Override
+        protected AtomicReference<Function<String, ?>> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    // the resolved converter of each class, which is resolved again if removed while resolving
+    private static final ClassValue<Function<String, ?>> RESOLVED = new ClassValue<>() {
+        @Override
+        protected Function<String, ?> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    static {
+        register(String.class, Function.identity());
+        register(Boolean.class, Boolean::valueOf);
+        register(Character.class, text -> (text.isEmpty() ? null : text.charAt(0)));
+        register(Byte.class, Byte::valueOf);
+        register(Short.class, Short::valueOf);
+        register(Integer.class, Integer::valueOf);
+        register(Long.class, Long::valueOf);
+        register(Float.class, Float::valueOf);
+        register(Double.class, Double::valueOf);
+        register(BigInteger.class, BigInteger::new);
+        register(BigDecimal.class, BigDecimal::new);
+        register(UUID.class, UUID::fromString);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(OffsetDateTime.class, OffsetDateTime::parse);
+        register(ZonedDateTime.class, ZonedDateTime::parse);
+        register(Instant.class, ConverterRegistry::toInstant);
+        register(Date.class, text -> Date.from(toInstant(text)));
+    }
+
+    /**
+     * Returns the instant of the ISO-8601 instant, date-time (in the system zone) or date (at the start of the day)
+     * <code>text</code>, or of the legacy <code>DateFormat</code> text.
+     *
+     * @param text
+     * @return
+     */
+    private static Instant toInstant(String text) {
+        try {
+            final TemporalAccessor dateTime = DateTimeFormatter.ISO_DATE_TIME.parseBest(text, ZonedDateTime::from,
+                                                                                         LocalDateTime::from);
+            if (dateTime instanceof ZonedDateTime) {
+                return ((ZonedDateTime) dateTime).toInstant();
+            }
+
+            return ((LocalDateTime) dateTime).atZone(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException ex) {
+            // not a date-time
+        }
+
+        try {
+            return LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } catch (DateTimeParseException ex) {
+            try {
+                return DATE_FORMAT.get().parse(text).toInstant();
+            } catch (ParseException parseException) {
+                throw new IllegalArgumentException("Invalid date:" + text, parseException);
+            }
+        }
+    }
+
+    /**
+     * Registers (or replaces) the <code>converter</code> of the <code>type</code>. The converter must be thread-safe.
+     * Only the resolved converters of the <code>type</code> (and of its primitive type) are resolved again.
+     *
+     * @param type
+     * @param converter
+     * @param <T>
+     */
+    public static <T> void register(Class<T> type, Function<String, ? extends T> converter) {
+        BeanUtils.assertNonNull(type, "type should not be null!");
+        BeanUtils.assertNonNull(converter, "converter should not be null!");
+        CONVERTERS.get(type).set(converter);
+        RESOLVED.remove(type);
+        if (ClassUtils.isPrimitiveWrapper(type)) {
+            // the primitive type resolves the converter of its wrapper
+            RESOLVED.remove(MethodType.methodType(type).unwrap().returnType());
+        }
+    }
+
+    /**
+     * Resolves the converter of the <code>type</code>.
+     *
+     * @param type
+     * @return
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, ?> resolve(Class<?> type) {
+        final Class<?> targetType = ClassUtils.resolvePrimitiveIfNecessary(type);
+        final Function<String, ?> converter = CONVERTERS.get(targetType).get();
+        if (BeanUtils.isNotNull(converter)) {
+            return converter;
+        } else if (targetType.isEnum()) {
+            return text -> Enum.valueOf((Class<? extends Enum>) targetType, text);
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Returns the converter of the <code>type</code>, or <code>null</code> if there is none.
+     *
+     * @param type
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Function<String, T> converterOf(Class<T> type) {
+        final Function<String, ?> converter = RESOLVED.get(type);
+        return (converter == NONE ? null : (Function<String, T>) converter);
+    }
+
+    /**
+     * Returns the <code>text</code> converted to the <code>type</code>, or <code>null</code> if the
+     * <code>text</code> is <code>null</code> or there is no converter of the <code>type</code>. Throws the exception
+     * of the converter if the <code>text</code> is invalid.
+     *
+     * @param text
+     * @param type
+     * @param <T>
+     * @return
+     */
+    public static <T> T asType(String text, Class<T> type) {
+        if (BeanUtils.isNull(text) || BeanUtils.isNull(type)) {
+            return null;
+        }
+
+        final Function<String, T> converter = converterOf(type);
+        return (BeanUtils.isNull(converter) ? null : converter.apply(text));
+    }
+}
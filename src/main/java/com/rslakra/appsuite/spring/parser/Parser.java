@@ -9,14 +9,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author Rohtash Lakra
@@ -25,7 +22,8 @@ import java.util.List;
 public interface Parser<T> {
 
     /**
-     * Returns the value as type of <code>Class<T></code> type.
+     * Returns the value as type of <code>Class<T></code> type, converted by the <code>ConverterRegistry</code>.
+     * Returns <code>null</code> if there is no converter of the type.
      *
      * @param text
      * @param tClass
@@ -33,33 +31,7 @@ public interface Parser<T> {
      * @return
      */
     static <T> T asType(String text, Class<T> tClass) {
-        if (BeanUtils.isNotNull(text) && BeanUtils.isNotNull(tClass)) {
-            if (BeanUtils.isTypeOf(tClass, BigDecimal.class)) {
-                return (T) new BigDecimal(text);
-            } else if (BeanUtils.isTypeOf(tClass, BigInteger.class)) {
-                return (T) new BigInteger(text);
-            } else if (BeanUtils.isTypeOf(tClass, Double.class)) {
-                return (T) Double.valueOf(text);
-            } else if (BeanUtils.isTypeOf(tClass, Float.class)) {
-                return (T) Float.valueOf(text);
-            } else if (BeanUtils.isTypeOf(tClass, Long.class)) {
-                return (T) Long.valueOf(text);
-            } else if (BeanUtils.isTypeOf(tClass, Integer.class)) {
-                return (T) Integer.valueOf(text);
-            } else if (BeanUtils.isTypeOf(tClass, Short.class)) {
-                return (T) Short.valueOf(text);
-            } else if (BeanUtils.isTypeOf(tClass, Byte.class)) {
-                return (T) Byte.valueOf(text);
-            } else if (BeanUtils.isTypeOf(tClass, Date.class)) {
-                try {
-                    return (T) DateFormat.getInstance().parse(text);
-                } catch (ParseException ex) {
-                    throw new RuntimeException(ex);
-                }
-            }
-        }
-
-        return (T) null;
+        return ConverterRegistry.asType(text, tClass);
     }
 
     /**
@@ -113,6 +85,35 @@ public interface Parser<T> {
         return null;
     }
 
+    /**
+     * Returns the OK response of the <code>inputStreamResource</code>, whose content is compressed with the
+     * <code>contentEncoding</code> (if not <code>null</code>). The response varies by the <code>Accept-Encoding</code>
+     * of the request.
+     *
+     * @param contentDisposition
+     * @param mediaType
+     * @param contentEncoding
+     * @param inputStreamResource
+     * @return
+     */
+    static ResponseEntity<Resource> buildOKResponse(String contentDisposition, MediaType mediaType,
+                                                    String contentEncoding, InputStreamResource inputStreamResource) {
+        if (BeanUtils.isNotEmpty(contentDisposition) && BeanUtils.isNotNull(mediaType) && BeanUtils.isNotNull(
+            inputStreamResource)) {
+            final ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(mediaType);
+            if (BeanUtils.isNotNull(contentEncoding)) {
+                bodyBuilder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            }
+
+            return bodyBuilder.body(inputStreamResource);
+        }
+
+        return null;
+    }
+
     /**
      * Returns the <code>InputStreamResource</code> from the provided <code>byte[]</code> object.
      *
@@ -163,6 +164,21 @@ public interface Parser<T> {
      */
     List<String> buildRowCells(T t);
 
+    /**
+     * Fills the reusable <code>rowCells</code> with the value of the cells of the row of the <code>T</code> object and
+     * returns it. The writers call this for each row with the same list, so the implementations can override it to
+     * fill the cells without allocating a list per row.
+     *
+     * @param t
+     * @param rowCells
+     * @return
+     */
+    default List<String> buildRowCells(T t, List<String> rowCells) {
+        rowCells.clear();
+        rowCells.addAll(buildRowCells(t));
+        return rowCells;
+    }
+
     /**
      * Writes the list of <code>T</code> objects to the <code>OutputStream</code>.
      *
@@ -171,4 +187,26 @@ public interface Parser<T> {
      */
     OutputStream writeStream(List<T> ts);
 
+    /**
+     * Writes the rows of the <code>ts</code> objects to the <code>outputStream</code> (like a file or a socket) as
+     * they are iterated, without building the content in the memory. The stream is flushed but not closed. The
+     * streamed downloads use it, so every parser writes its format with it.
+     *
+     * @param outputStream
+     * @param ts
+     * @throws IOException
+     */
+    void writeStream(OutputStream outputStream, Iterable<T> ts) throws IOException;
+
+    /**
+     * Writes the rows of the <code>ts</code> stream to the <code>outputStream</code>.
+     *
+     * @param outputStream
+     * @param ts
+     * @throws IOException
+     */
+    default void writeStream(OutputStream outputStream, Stream<T> ts) throws IOException {
+        writeStream(outputStream, (Iterable<T>) ts::iterator);
+    }
+
 }
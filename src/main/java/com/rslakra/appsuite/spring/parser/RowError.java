@@ -0,0 +1,78 @@
+package com.rslakra.appsuite.spring.parser;
+
+import com.rslakra.appsuite.core.BeanUtils;
+
+/**
+ * The rejected row of a lenient import, with the line number, the column (if known) and the reason.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 8:25 PM
+ */
+public class RowError {
+
+    private final long lineNumber;
+    private final String column;
+    private final String reason;
+
+    /**
+     * @param lineNumber
+     * @param column
+     * @param reason
+     */
+    public RowError(long lineNumber, String column, String reason) {
+        this.lineNumber = lineNumber;
+        this.column = column;
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the error of the row at <code>lineNumber</code> failed with the <code>exception</code>.
+     *
+     * @param lineNumber
+     * @param exception
+     * @return
+     */
+    public static RowError of(long lineNumber, Throwable exception) {
+        final String column = (exception instanceof RowException ? ((RowException) exception).getColumn() : null);
+        final String reason = (BeanUtils.isNull(exception.getMessage()) ? exception.getClass().getSimpleName()
+                                                                        : exception.getMessage());
+        return new RowError(lineNumber, column, reason);
+    }
+
+    /**
+     * Returns the line number of the row.
+     *
+     * @return
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the column of the invalid field, or <code>null</code> if not known.
+     *
+     * @return
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the reason of the rejection.
+     *
+     * @return
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return "RowError <lineNumber=" + lineNumber + ", column=" + column + ", reason=" + reason + ">";
+    }
+}
@@ -0,0 +1,79 @@
+package com.rslakra.appsuite.spring.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bounded buffer of the rejected rows of a lenient import. All the rejected rows are counted, but only the first
+ * <code>maxErrors</code> are kept, so a file of bad rows can't exhaust the memory.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 8:30 PM
+ */
+public class RowErrors {
+
+    public static final int DEFAULT_MAX_ERRORS = 100;
+
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long count;
+
+    /**
+     * @param maxErrors
+     */
+    public RowErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public RowErrors() {
+        this(DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * Adds the error of a rejected row.
+     *
+     * @param rowError
+     */
+    public synchronized void add(RowError rowError) {
+        count++;
+        if (errors.size() < maxErrors) {
+            errors.add(rowError);
+        }
+    }
+
+    /**
+     * Returns the number of all the rejected rows.
+     *
+     * @return
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns true if no row is rejected.
+     *
+     * @return
+     */
+    public synchronized boolean isEmpty() {
+        return (count == 0);
+    }
+
+    /**
+     * Returns the kept errors, at most <code>maxErrors</code>.
+     *
+     * @return
+     */
+    public synchronized List<RowError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    /**
+     * Returns true if more rows are rejected than kept.
+     *
+     * @return
+     */
+    public synchronized boolean isTruncated() {
+        return (count > errors.size());
+    }
+}
@@ -0,0 +1,39 @@
+package com.rslakra.appsuite.spring.parser;
+
+/**
+ * The failure to read a field of a row, like an invalid number, reported with the column of the field.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 8:20 PM
+ */
+public class RowException extends RuntimeException {
+
+    private final String column;
+
+    /**
+     * @param column
+     * @param message
+     * @param cause
+     */
+    public RowException(String column, String message, Throwable cause) {
+        super(message, cause);
+        this.column = column;
+    }
+
+    /**
+     * @param column
+     * @param message
+     */
+    public RowException(String column, String message) {
+        this(column, message, null);
+    }
+
+    /**
+     * Returns the column of the invalid field.
+     *
+     * @return
+     */
+    public String getColumn() {
+        return column;
+    }
+}
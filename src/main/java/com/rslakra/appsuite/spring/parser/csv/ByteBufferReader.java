@@ -0,0 +1,78 @@
+package com.rslakra.appsuite.spring.parser.csv;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The <code>Reader</code> decoding the UTF-8 bytes of a <code>ByteBuffer</code> (a slice of a heap or a mapped
+ * buffer) directly, without copying the bytes through an <code>InputStream</code>. The malformed bytes are replaced.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 5:05 PM
+ */
+final class ByteBufferReader extends Reader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ByteBuffer buffer;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE).flip();
+    private boolean endOfInput;
+
+    /**
+     * @param buffer
+     */
+    ByteBufferReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Decodes the next characters, returns false at the end of the buffer.
+     *
+     * @return
+     */
+    private boolean fill() {
+        chars.clear();
+        while (chars.position() == 0 && !endOfInput) {
+            decoder.decode(buffer, chars, true);
+            if (!buffer.hasRemaining() && decoder.flush(chars).isUnderflow()) {
+                endOfInput = true;
+            }
+        }
+        chars.flip();
+
+        return chars.hasRemaining();
+    }
+
+    /**
+     * @param cbuf
+     * @param off
+     * @param len
+     * @return
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+        if (len == 0) {
+            return 0;
+        } else if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+
+        final int count = Math.min(len, chars.remaining());
+        chars.get(cbuf, off, count);
+        return count;
+    }
+
+    /**
+     * Nothing to release, the buffer is owned by the caller.
+     */
+    @Override
+    public void close() {
+    }
+}
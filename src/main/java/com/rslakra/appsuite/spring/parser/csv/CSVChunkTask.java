@@ -0,0 +1,92 @@
+package com.rslakra.appsuite.spring.parser.csv;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Parses the chunks of the CSV records between the <code>boundaries</code> of the buffer with
+ * <code>readCSVRow</code>, splitting the chunks in halves across the fork-join pool. The results are joined in
+ * the order of the chunks.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 5:15 PM
+ */
+final class CSVChunkTask<T> extends RecursiveTask<List<T>> {
+
+    private final CsvParser<T> csvParser;
+    private final CSVFormat csvFormat;
+    private final ByteBuffer buffer;
+    private final int[] boundaries;
+    private final int fromChunk;
+    private final int toChunk;
+
+    /**
+     * @param csvParser
+     * @param csvFormat
+     * @param buffer
+     * @param boundaries
+     * @param fromChunk
+     * @param toChunk
+     */
+    CSVChunkTask(CsvParser<T> csvParser, CSVFormat csvFormat, ByteBuffer buffer, int[] boundaries, int fromChunk,
+                 int toChunk) {
+        this.csvParser = csvParser;
+        this.csvFormat = csvFormat;
+        this.buffer = buffer;
+        this.boundaries = boundaries;
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+    }
+
+    /**
+     * Parses the records of a single chunk.
+     *
+     * @param chunk
+     * @return
+     */
+    private List<T> parseChunk(int chunk) {
+        final int from = boundaries[chunk];
+        final ByteBuffer slice = buffer.slice(from, boundaries[chunk + 1] - from);
+        try (CSVParser chunkParser = new CSVParser(new ByteBufferReader(slice), csvFormat)) {
+            final Function<CSVRecord, CSVRow> binder = CSVRow.binderOf(chunkParser, csvParser.getReadHeaders());
+            final List<T> tList = new ArrayList<>();
+            for (CSVRecord csvRecord : chunkParser) {
+                tList.add(csvParser.readCSVRow(binder.apply(csvRecord)));
+            }
+
+            return tList;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return
+     */
+    @Override
+    protected List<T> compute() {
+        if (toChunk - fromChunk == 1) {
+            return parseChunk(fromChunk);
+        }
+
+        final int middle = (fromChunk + toChunk) >>> 1;
+        final CSVChunkTask<T> leftTask = new CSVChunkTask<>(csvParser, csvFormat, buffer, boundaries, fromChunk,
+                                                            middle);
+        leftTask.fork();
+        final List<T> rightList = new CSVChunkTask<>(csvParser, csvFormat, buffer, boundaries, middle,
+                                                     toChunk).compute();
+        final List<T> tList = leftTask.join();
+        tList.addAll(rightList);
+
+        return tList;
+    }
+}
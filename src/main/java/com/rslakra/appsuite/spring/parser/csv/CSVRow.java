@@ -0,0 +1,161 @@
+package com.rslakra.appsuite.spring.parser.csv;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.parser.ConverterRegistry;
+import com.rslakra.appsuite.spring.parser.RowException;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The accessor of the fields of a <code>CSVRecord</code> by the index of the <code>getReadHeaders()</code>.
+ * <p>
+ * The headers are resolved to the columns once per file, so reading a field is an array lookup instead of the
+ * case-insensitive header map lookup of <code>CSVRecord.get(String)</code>. Without the
+ * <code>getReadHeaders()</code>, the fields are bound by the names of the header record of the file. The explicit
+ * <code>getReadHeaders()</code> are the header names of the format (which skips the header record of the file), so
+ * they're bound by position: the first header reads the first column, whatever the file names it. The fields missing
+ * in the short records read as <code>null</code>.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 7:05 PM
+ */
+public final class CSVRow {
+
+    private final String[] headers;
+    private final int[] columns;
+    private final CSVRecord csvRecord;
+
+    /**
+     * @param headers
+     * @param columns
+     * @param csvRecord
+     */
+    private CSVRow(String[] headers, int[] columns, CSVRecord csvRecord) {
+        this.headers = headers;
+        this.columns = columns;
+        this.csvRecord = csvRecord;
+    }
+
+    /**
+     * Returns the function binding the records of the <code>csvParser</code> to the <code>headers</code>, by the
+     * (case-insensitive) header names of the <code>csvParser</code>. The empty <code>headers</code> bind to the header
+     * names of the file, in their order. The non-empty <code>headers</code> are the header names of the format of the
+     * <code>csvParser</code>, so each binds to the column at its position.
+     *
+     * @param csvParser
+     * @param headers
+     * @return
+     */
+    public static Function<CSVRecord, CSVRow> binderOf(CSVParser csvParser, String[] headers) {
+        final List<String> headerNames = csvParser.getHeaderNames();
+        final String[] boundHeaders = (BeanUtils.isNull(headers) || headers.length == 0)
+                                      ? headerNames.toArray(new String[0]) : headers;
+        final int[] columns = new int[boundHeaders.length];
+        for (int index = 0; index < boundHeaders.length; index++) {
+            columns[index] = -1;
+            for (int column = 0; column < headerNames.size(); column++) {
+                if (headerNames.get(column).equalsIgnoreCase(boundHeaders[index])) {
+                    columns[index] = column;
+                    break;
+                }
+            }
+        }
+
+        return csvRecord -> new CSVRow(boundHeaders, columns, csvRecord);
+    }
+
+    /**
+     * Returns the record of the row.
+     *
+     * @return
+     */
+    public CSVRecord getRecord() {
+        return csvRecord;
+    }
+
+    /**
+     * Returns the number of the bound headers.
+     *
+     * @return
+     */
+    public int size() {
+        return headers.length;
+    }
+
+    /**
+     * Returns the index of the <code>header</code> (ignoring the case), or -1 if not bound. Resolve the indexes once,
+     * not per row.
+     *
+     * @param header
+     * @return
+     */
+    public int indexOf(String header) {
+        for (int index = 0; index < headers.length; index++) {
+            if (headers[index].equalsIgnoreCase(header)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the field of the header at <code>index</code>, or <code>null</code> if the file has no such field.
+     *
+     * @param index
+     * @return
+     */
+    public String get(int index) {
+        final int column = columns[index];
+        return (column >= 0 && column < csvRecord.size() ? csvRecord.get(column) : null);
+    }
+
+    /**
+     * Returns the field of the header at <code>index</code> converted to the <code>type</code> by the
+     * <code>ConverterRegistry</code>, or <code>null</code> if the field is missing or empty. Throws
+     * <code>RowException</code> with the header of the field if it can't be converted.
+     *
+     * @param index
+     * @param type
+     * @param <T>
+     * @return
+     */
+    public <T> T get(int index, Class<T> type) {
+        final String field = get(index);
+        if (BeanUtils.isNull(field) || field.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return ConverterRegistry.asType(field, type);
+        } catch (RuntimeException ex) {
+            throw new RowException(headers[index], "Invalid " + type.getSimpleName() + " '" + field + "' of "
+                                                   + headers[index], ex);
+        }
+    }
+
+    /**
+     * Returns the field of the <code>header</code>, or <code>null</code> if the file has no such field.
+     *
+     * @param header
+     * @return
+     */
+    public String get(String header) {
+        final int index = indexOf(header);
+        return (index < 0 ? null : get(index));
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return csvRecord.toString();
+    }
+}
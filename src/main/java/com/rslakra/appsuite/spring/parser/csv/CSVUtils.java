@@ -1,11 +1,27 @@
 package com.rslakra.appsuite.spring.parser.csv;
 
 
+import com.rslakra.appsuite.core.BeanUtils;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.QuoteMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
 /**
  * @author Rohtash Lakra
  * @created 9/27/22 4:44 PM
@@ -22,4 +38,207 @@ public enum CSVUtils {
         .setQuoteMode(QuoteMode.MINIMAL)
         .build();
 
+    // the content codings of the compressed CSV files
+    public static final String GZIP_ENCODING = "gzip";
+    public static final String DEFLATE_ENCODING = "deflate";
+    public static final String GZIP_CONTENT_TYPE = "application/gzip";
+    public static final String X_GZIP_CONTENT_TYPE = "application/x-gzip";
+    private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte QUOTE = '"';
+    private static final byte LINE_FEED = '\n';
+
+    /**
+     * Returns the position after the first record of the <code>buffer</code> between <code>from</code> and
+     * <code>to</code>, the start of the second record, or <code>to</code> if there is a single record.
+     *
+     * @param buffer
+     * @param from
+     * @param to
+     * @return
+     */
+    public static int nextRecordStart(ByteBuffer buffer, int from, int to) {
+        boolean quoted = false;
+        for (int position = from; position < to; position++) {
+            final byte next = buffer.get(position);
+            if (next == QUOTE) {
+                quoted = !quoted;
+            } else if (next == LINE_FEED && !quoted) {
+                return position + 1;
+            }
+        }
+
+        return to;
+    }
+
+    /**
+     * Splits the records of the <code>buffer</code> between <code>from</code> and <code>to</code> into (at most)
+     * <code>chunks</code> ranges of about the same size. Returns the ascending boundaries, the first is
+     * <code>from</code>, the last is <code>to</code> and each other is the start of a record.
+     * <p>
+     * The line feeds inside the quoted fields (where the escaped <code>""</code> quotes toggle twice) don't end a
+     * record. The UTF-8 multibyte sequences never contain the quote or the line feed bytes, so the bytes are scanned
+     * without decoding, in a single pass.
+     * </p>
+     *
+     * @param buffer
+     * @param from
+     * @param to
+     * @param chunks
+     * @return
+     */
+    public static int[] splitRecords(ByteBuffer buffer, int from, int to, int chunks) {
+        final int[] boundaries = new int[Math.max(1, chunks) + 1];
+        int count = 0;
+        boundaries[count++] = from;
+        boolean quoted = false;
+        int position = from;
+        for (int chunk = 1; chunk < chunks && position < to; chunk++) {
+            final long target = from + ((long) (to - from) * chunk / chunks);
+            while (position < to) {
+                final byte next = buffer.get(position++);
+                if (next == QUOTE) {
+                    quoted = !quoted;
+                } else if (next == LINE_FEED && !quoted && position > target) {
+                    break;
+                }
+            }
+
+            if (position < to) {
+                boundaries[count++] = position;
+            }
+        }
+        boundaries[count++] = to;
+        LOGGER.debug("splitRecords({}, {}, {}), boundaries: {}", from, to, chunks, count);
+
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    /**
+     * Returns the content coding of the compressed content starting with the <code>first</code> 2 bytes, or
+     * <code>null</code> if not compressed. Only the gzip content (starting with the <code>1f 8b</code> magic) is
+     * detected. The zlib (deflate) header is also valid text (like <code>x^</code>), so the deflate content is only
+     * decoded when its coding is declared.
+     *
+     * @param first
+     * @param second
+     * @return
+     */
+    public static String encodingOf(int first, int second) {
+        if (first == 0x1f && second == 0x8b) {
+            return GZIP_ENCODING;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the content coding of the <code>path</code> file, or <code>null</code> if not compressed.
+     *
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static String encodingOf(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return encodingOf(inputStream.read(), inputStream.read());
+        }
+    }
+
+    /**
+     * Returns the <code>inputStream</code>, decompressing it while reading if the content is gzip compressed,
+     * detected by its first bytes.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    public static InputStream decompressing(InputStream inputStream) throws IOException {
+        return decompressing(inputStream, null);
+    }
+
+    /**
+     * Returns the <code>inputStream</code>, decompressing it while reading with the declared <code>encoding</code>
+     * (like the <code>Content-Encoding</code> header), <code>gzip</code> or <code>deflate</code>. If the
+     * <code>encoding</code> isn't declared, the gzip content is detected by its first bytes.
+     *
+     * @param inputStream
+     * @param encoding
+     * @return
+     * @throws IOException
+     */
+    public static InputStream decompressing(InputStream inputStream, String encoding) throws IOException {
+        if (BeanUtils.isNull(encoding)) {
+            final InputStream markedStream = (inputStream.markSupported() ? inputStream
+                                                                           : new BufferedInputStream(inputStream));
+            markedStream.mark(2);
+            encoding = encodingOf(markedStream.read(), markedStream.read());
+            markedStream.reset();
+            inputStream = markedStream;
+        }
+
+        if (GZIP_ENCODING.equalsIgnoreCase(encoding)) {
+            LOGGER.debug("decompressing(), encoding: {}", encoding);
+            return new GZIPInputStream(inputStream, COMPRESSION_BUFFER_SIZE);
+        } else if (DEFLATE_ENCODING.equalsIgnoreCase(encoding)) {
+            LOGGER.debug("decompressing(), encoding: {}", encoding);
+            return new InflaterInputStream(inputStream, new Inflater(), COMPRESSION_BUFFER_SIZE);
+        }
+
+        return inputStream;
+    }
+
+    /**
+     * Returns the preferred content coding of the <code>Accept-Encoding</code> header, <code>gzip</code> or
+     * <code>deflate</code>, or <code>null</code> if the client doesn't accept any of them.
+     *
+     * @param acceptEncoding
+     * @return
+     */
+    public static String acceptedEncoding(String acceptEncoding) {
+        if (BeanUtils.isNull(acceptEncoding)) {
+            return null;
+        }
+
+        boolean deflate = false;
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            final String name = parameters[0].trim();
+            boolean accepted = true;
+            for (int index = 1; index < parameters.length; index++) {
+                final String parameter = parameters[index].trim().replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.matches("q=0(\\.0*)?")) {
+                    accepted = false;
+                }
+            }
+
+            if (accepted && (GZIP_ENCODING.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name))) {
+                return GZIP_ENCODING;
+            } else if (accepted && DEFLATE_ENCODING.equalsIgnoreCase(name)) {
+                deflate = true;
+            }
+        }
+
+        return (deflate ? DEFLATE_ENCODING : null);
+    }
+
+    /**
+     * Returns the <code>outputStream</code> compressing with the <code>encoding</code>. The flushes are sync flushes,
+     * so the compressed content is sent as it's written. Call <code>finish()</code> after the last write.
+     *
+     * @param outputStream
+     * @param encoding
+     * @return
+     * @throws IOException
+     */
+    public static DeflaterOutputStream compressing(OutputStream outputStream, String encoding) throws IOException {
+        if (GZIP_ENCODING.equals(encoding)) {
+            return new GZIPOutputStream(outputStream, COMPRESSION_BUFFER_SIZE, true);
+        } else if (DEFLATE_ENCODING.equals(encoding)) {
+            return new DeflaterOutputStream(outputStream, new Deflater(), COMPRESSION_BUFFER_SIZE, true);
+        }
+
+        throw new IllegalArgumentException("Unsupported encoding:" + encoding);
+    }
+
 }
@@ -0,0 +1,114 @@
+package com.rslakra.appsuite.spring.parser.csv;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The <code>Writer</code> encoding the characters as UTF-8 to the <code>OutputStream</code> in the fixed-size chunks.
+ * Each full chunk is written and flushed, so the files and the sockets receive the content progressively while the
+ * memory stays constant. Closing the writer flushes the last chunk, but doesn't close the stream.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 6:40 PM
+ */
+final class ChunkedWriter extends Writer {
+
+    private final Writer writer;
+    private final char[] chunk;
+    private int size;
+
+    /**
+     * @param outputStream
+     * @param chunkSize
+     */
+    ChunkedWriter(OutputStream outputStream, int chunkSize) {
+        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        this.chunk = new char[chunkSize];
+    }
+
+    /**
+     * Writes and flushes the chunk.
+     *
+     * @throws IOException
+     */
+    private void flushChunk() throws IOException {
+        writer.write(chunk, 0, size);
+        writer.flush();
+        size = 0;
+    }
+
+    /**
+     * @param c
+     * @throws IOException
+     */
+    @Override
+    public void write(int c) throws IOException {
+        if (size == chunk.length) {
+            flushChunk();
+        }
+        chunk[size++] = (char) c;
+    }
+
+    /**
+     * @param cbuf
+     * @param off
+     * @param len
+     * @throws IOException
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        while (len > 0) {
+            if (size == chunk.length) {
+                flushChunk();
+            }
+
+            final int count = Math.min(len, chunk.length - size);
+            System.arraycopy(cbuf, off, chunk, size, count);
+            size += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * @param str
+     * @param off
+     * @param len
+     * @throws IOException
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        while (len > 0) {
+            if (size == chunk.length) {
+                flushChunk();
+            }
+
+            final int count = Math.min(len, chunk.length - size);
+            str.getChars(off, off + count, chunk, size);
+            size += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * @throws IOException
+     */
+    @Override
+    public void flush() throws IOException {
+        flushChunk();
+    }
+
+    /**
+     * Flushes the last chunk, the stream is owned by the caller.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        flushChunk();
+    }
+}
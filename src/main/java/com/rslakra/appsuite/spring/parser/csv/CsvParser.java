@@ -2,6 +2,8 @@ package com.rslakra.appsuite.spring.parser.csv;
 
 import com.rslakra.appsuite.core.BeanUtils;
 import com.rslakra.appsuite.spring.parser.Parser;
+import com.rslakra.appsuite.spring.parser.RowError;
+import com.rslakra.appsuite.spring.parser.RowErrors;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVParser;
@@ -16,9 +18,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * @author Rohtash Lakra
@@ -33,14 +49,31 @@ public interface CsvParser<T> extends Parser<T> {
     CSVFormat CSV_WRITER_FORMAT = CSVFormat.DEFAULT.builder()
             .setQuoteMode(QuoteMode.MINIMAL)
             .build();
-    
+
+    // the bytes of the CSV content parsed by a single task of the parallel parsing
+    int PARALLEL_CHUNK_SIZE = 1 << 20;
+    // the characters of the CSV content written and flushed at once
+    int WRITE_CHUNK_SIZE = 64 * 1024;
     
     /**
      * @param file
      * @return
      */
     static boolean isCSVFile(MultipartFile file) {
-        return Parser.isTypeOf(file, CSV_CONTENT_TYPE);
+        return Parser.isTypeOf(file, CSV_CONTENT_TYPE) || isCompressedCSVFile(file);
+    }
+
+    /**
+     * Returns true if the <code>file</code> is a gzip compressed CSV file, like <code>users.csv.gz</code>.
+     *
+     * @param file
+     * @return
+     */
+    static boolean isCompressedCSVFile(MultipartFile file) {
+        return (Parser.isTypeOf(file, CSVUtils.GZIP_CONTENT_TYPE)
+                || Parser.isTypeOf(file, CSVUtils.X_GZIP_CONTENT_TYPE))
+               && BeanUtils.isNotNull(file.getOriginalFilename())
+               && file.getOriginalFilename().toLowerCase().contains("." + CSV_FILE_TYPE);
     }
     
     /**
@@ -73,7 +106,47 @@ public interface CsvParser<T> extends Parser<T> {
      */
     @Override
     default OutputStream writeStream(List<T> tList) {
-        return null;
+        final ByteArrayOutputStream csvByteStream = new ByteArrayOutputStream();
+        try {
+            writeStream(csvByteStream, tList);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return csvByteStream;
+    }
+
+    /**
+     * Writes the headers and the rows of the <code>tIterable</code> objects directly to the
+     * <code>outputStream</code> (like a file, a socket or the servlet response), as the objects are iterated.
+     * <p>
+     * The rows are encoded in the chunks of <code>WRITE_CHUNK_SIZE</code> characters and each chunk is flushed to
+     * the stream. The cells of all the rows are built into a single reusable list. The stream is flushed but not
+     * closed.
+     * </p>
+     *
+     * @param outputStream
+     * @param tIterable
+     * @throws IOException
+     */
+    @Override
+    default void writeStream(OutputStream outputStream, Iterable<T> tIterable) throws IOException {
+        try (CSVPrinter csvPrinter = new CSVPrinter(new ChunkedWriter(outputStream, WRITE_CHUNK_SIZE),
+                                                   CSV_WRITER_FORMAT)) {
+            // add headers row
+            final String[] writeHeaders = getWriteHeaders();
+            if (BeanUtils.isNotEmpty(writeHeaders)) {
+                csvPrinter.printRecord((Object[]) writeHeaders);
+            }
+
+            // add contents
+            if (BeanUtils.isNotNull(tIterable)) {
+                final List<String> rowCells = new ArrayList<>();
+                for (T t : tIterable) {
+                    csvPrinter.printRecord(buildRowCells(t, rowCells));
+                }
+            }
+        }
     }
     
     /**
@@ -81,52 +154,278 @@ public interface CsvParser<T> extends Parser<T> {
      * @return
      */
     T readCSVRecord(CSVRecord csvRecord);
+
+    /**
+     * Returns the <code>T</code> object of the <code>csvRow</code>, whose fields are bound to the indexes of the
+     * <code>getReadHeaders()</code> once per file (by position, or by the header names of the file if there are no
+     * <code>getReadHeaders()</code>). Override it to read the fields by index, like
+     * <code>csvRow.get(EMAIL_INDEX)</code>, instead of by name on every row. Reads the record with
+     * <code>readCSVRecord</code> by default.
+     *
+     * @param csvRow
+     * @return
+     */
+    default T readCSVRow(CSVRow csvRow) {
+        return readCSVRecord(csvRow.getRecord());
+    }
+
+    /**
+     * Returns the <code>T</code> object of the <code>csvRow</code>, or <code>null</code> if the row can't be read,
+     * whose error is added to the <code>rowErrors</code>.
+     *
+     * @param csvRow
+     * @param lineNumber
+     * @param rowErrors
+     * @return
+     */
+    default T readCSVRow(CSVRow csvRow, long lineNumber, RowErrors rowErrors) {
+        try {
+            return readCSVRow(csvRow);
+        } catch (RuntimeException ex) {
+            rowErrors.add(RowError.of(lineNumber, ex));
+            return null;
+        }
+    }
     
     /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>inputStream</code>, read with
+     * <code>readCSVRow</code>. The records are read one at a time, so the memory doesn't grow with the size of the
+     * file. The stream must be closed (preferably with
+     * try-with-resources), which closes the underlying reader.
+     * <p>
+     * The gzip compressed content is decompressed while reading. The read failures while consuming the
+     * stream are thrown as <code>UncheckedIOException</code>.
+     * </p>
+     *
      * @param inputStream
      * @return
+     * @throws IOException
      */
-    default List<T> readCSVStream(InputStream inputStream) throws IOException {
-        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
-             CSVParser csvParser = new CSVParser(fileReader, getReaderFormat(getReadHeaders()));) {
-            final List<T> tList = new ArrayList<>();
-            Iterable<CSVRecord> csvRecords = csvParser.getRecords();
-            for (CSVRecord csvRecord : csvRecords) {
-                tList.add(readCSVRecord(csvRecord));
+    default Stream<T> streamCSVStream(InputStream inputStream) throws IOException {
+        return streamCSVStream(inputStream, null);
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>inputStream</code>. If the
+     * <code>rowErrors</code> is provided, the import is lenient: the rows which can't be read are skipped and their
+     * errors (with the line number) are added to the <code>rowErrors</code>, while the rest of the file continues.
+     *
+     * @param inputStream
+     * @param rowErrors
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamCSVStream(InputStream inputStream, RowErrors rowErrors) throws IOException {
+        final InputStream csvStream = CSVUtils.decompressing(inputStream);
+        return streamCSVReader(new BufferedReader(new InputStreamReader(csvStream, StandardCharsets.UTF_8)),
+                               rowErrors);
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>reader</code>, which is closed with the stream.
+     *
+     * @param reader
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamCSVReader(Reader reader) throws IOException {
+        return streamCSVReader(reader, null);
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>reader</code>, which is closed with the stream.
+     * The import is lenient if the <code>rowErrors</code> is provided.
+     *
+     * @param reader
+     * @param rowErrors
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamCSVReader(Reader reader, RowErrors rowErrors) throws IOException {
+        try {
+            final CSVParser csvParser = new CSVParser(reader, getReaderFormat(getReadHeaders()));
+            final Function<CSVRecord, CSVRow> binder = CSVRow.binderOf(csvParser, getReadHeaders());
+            final Stream<T> tStream;
+            if (BeanUtils.isNull(rowErrors)) {
+                tStream = csvParser.stream().map(binder).map(this::readCSVRow);
+            } else {
+                // the parser has read up to the end of the current record
+                tStream = csvParser.stream().map(binder)
+                    .map(csvRow -> readCSVRow(csvRow, csvParser.getCurrentLineNumber(), rowErrors))
+                    .filter(Objects::nonNull);
             }
-            
-            return tList;
+
+            return tStream.onClose(() -> {
+                try {
+                    csvParser.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (IOException | RuntimeException ex) {
+            reader.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the memory-mapped content of the <code>csvPath</code> file. The mapping stays valid after the channel
+     * is closed, until the buffer is garbage collected.
+     *
+     * @param csvPath
+     * @return
+     * @throws IOException
+     */
+    static MappedByteBuffer mapCSVFile(Path csvPath) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        }
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the local <code>csvPath</code> file. The file is
+     * memory-mapped and the UTF-8 bytes are decoded directly from the mapped pages, without copying them through
+     * the stream buffers. The files larger than a single mapping (2 GB) and the compressed files are read as a
+     * stream.
+     *
+     * @param csvPath
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamCSVFile(Path csvPath) throws IOException {
+        return streamCSVFile(csvPath, null);
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the local <code>csvPath</code> file. The import is lenient
+     * if the <code>rowErrors</code> is provided.
+     *
+     * @param csvPath
+     * @param rowErrors
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamCSVFile(Path csvPath, RowErrors rowErrors) throws IOException {
+        if (Files.size(csvPath) > Integer.MAX_VALUE || BeanUtils.isNotNull(CSVUtils.encodingOf(csvPath))) {
+            return streamCSVStream(Files.newInputStream(csvPath), rowErrors);
+        }
+
+        return streamCSVReader(new ByteBufferReader(mapCSVFile(csvPath)), rowErrors);
+    }
+
+    /**
+     * Returns the <code>T</code> objects of the local <code>csvPath</code> file (like the spooled uploads). The file
+     * is memory-mapped and parsed in parallel with <code>readCSVBuffer</code>. The files larger than a single
+     * mapping (2 GB) and the compressed files are read as a stream.
+     *
+     * @param csvPath
+     * @return
+     * @throws IOException
+     */
+    default List<T> readCSVFile(Path csvPath) throws IOException {
+        if (Files.size(csvPath) > Integer.MAX_VALUE || BeanUtils.isNotNull(CSVUtils.encodingOf(csvPath))) {
+            return readCSVStream(Files.newInputStream(csvPath));
+        }
+
+        return readCSVBuffer(mapCSVFile(csvPath));
+    }
+
+    /**
+     * @param inputStream
+     * @return
+     */
+    default List<T> readCSVStream(InputStream inputStream) throws IOException {
+        try (Stream<T> tStream = streamCSVStream(inputStream)) {
+            return tStream.collect(Collectors.toList());
         } catch (IOException ex) {
             throw new IOException("Failed to parse CSV file! Error=" + ex.getMessage(), ex);
+        } catch (UncheckedIOException ex) {
+            throw new IOException("Failed to parse CSV file! Error=" + ex.getCause().getMessage(), ex.getCause());
         }
     }
     
+    /**
+     * Returns the <code>T</code> objects of the CSV content of the <code>buffer</code> (between its position and
+     * limit), parsed in parallel.
+     * <p>
+     * The records after the header are split into the chunks of about <code>PARALLEL_CHUNK_SIZE</code> bytes on the
+     * record boundaries (the line feeds of the quoted fields don't split), each chunk is decoded and parsed with
+     * <code>readCSVRow</code> on the fork-join pool and the objects are returned in the order of the file. The
+     * record numbers of the <code>CSVRecord</code> are relative to their chunk.
+     * </p>
+     *
+     * @param buffer
+     * @return
+     * @throws IOException
+     */
+    default List<T> readCSVBuffer(ByteBuffer buffer) throws IOException {
+        final int from = buffer.position();
+        final int to = buffer.limit();
+        final int headerEnd = CSVUtils.nextRecordStart(buffer, from, to);
+        String[] headers = getReadHeaders();
+        if (BeanUtils.isNull(headers) || headers.length == 0) {
+            try (CSVParser headerParser = new CSVParser(new ByteBufferReader(buffer.slice(from, headerEnd - from)),
+                                                        CSVFormat.DEFAULT.builder().setTrim(true).build())) {
+                headers = headerParser.stream().findFirst().map(CSVRecord::values).orElse(new String[0]);
+            }
+        }
+
+        // the chunks have no header record, the names are of the file header
+        final CSVFormat chunkFormat = getReaderFormat(headers).builder().setSkipHeaderRecord(false).build();
+        final int parallelism = ForkJoinPool.commonPool().getParallelism();
+        final int chunks = (int) Math.max(1, Math.min((to - headerEnd) / PARALLEL_CHUNK_SIZE, parallelism * 4L));
+        final int[] boundaries = CSVUtils.splitRecords(buffer, headerEnd, to, chunks);
+        try {
+            return ForkJoinPool.commonPool().invoke(new CSVChunkTask<>(this, chunkFormat, buffer, boundaries, 0,
+                                                                       boundaries.length - 1));
+        } catch (UncheckedIOException ex) {
+            throw new IOException("Failed to parse CSV file! Error=" + ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * Returns the <code>T</code> objects of the <code>inputStream</code>, parsed in parallel. The content is read in
+     * the memory first, which suits the uploads of many small records on the multicore hosts.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    default List<T> readCSVStreamParallel(InputStream inputStream) throws IOException {
+        return readCSVBuffer(ByteBuffer.wrap(CSVUtils.decompressing(inputStream).readAllBytes()));
+    }
+
     /**
      * @param tList
      * @return
      */
-    @SuppressWarnings("varargs")
     default InputStreamResource buildCSVResourceStream(final List<T> tList) throws IOException {
-        try (ByteArrayOutputStream csvByteStream = new ByteArrayOutputStream();
-             final CSVPrinter csvPrinter = new CSVPrinter(new PrintWriter(csvByteStream), CSV_WRITER_FORMAT);) {
-            // add headers row
-            String[] writeHeaders = getWriteHeaders();
-            if (BeanUtils.isNotEmpty(writeHeaders)) {
-                csvPrinter.printRecord((Object[]) writeHeaders);
-            }
-            
-            // add contents
-            if (BeanUtils.isNotEmpty(tList)) {
-                tList.forEach(item -> {
-                    try {
-                        csvPrinter.printRecord(buildRowCells(item).toArray());
-                    } catch (IOException ex) {
-                        throw new RuntimeException(ex);
-                    }
-                });
-            }
-            
-            csvPrinter.flush();
+        try (ByteArrayOutputStream csvByteStream = new ByteArrayOutputStream()) {
+            writeStream(csvByteStream, tList);
+            return Parser.newInputStreamResource(csvByteStream.toByteArray());
+        } catch (IOException ex) {
+            throw new IOException("Failed to import data from CSV file! Error=" + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns the CSV file of the <code>tList</code> objects, compressed with the <code>encoding</code> (like
+     * <code>gzip</code> or <code>deflate</code>), or uncompressed if it's <code>null</code>.
+     *
+     * @param tList
+     * @param encoding
+     * @return
+     * @throws IOException
+     */
+    default InputStreamResource buildCSVResourceStream(final List<T> tList, String encoding) throws IOException {
+        if (BeanUtils.isNull(encoding)) {
+            return buildCSVResourceStream(tList);
+        }
+
+        try (ByteArrayOutputStream csvByteStream = new ByteArrayOutputStream()) {
+            final DeflaterOutputStream compressedStream = CSVUtils.compressing(csvByteStream, encoding);
+            writeStream(compressedStream, tList);
+            compressedStream.finish();
             return Parser.newInputStreamResource(csvByteStream.toByteArray());
         } catch (IOException ex) {
             throw new IOException("Failed to import data from CSV file! Error=" + ex.getMessage(), ex);
@@ -2,24 +2,47 @@ package com.rslakra.appsuite.spring.parser.excel;
 
 import com.rslakra.appsuite.spring.parser.Parser;
 import com.rslakra.appsuite.core.BeanUtils;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Rohtash Lakra
@@ -31,6 +54,8 @@ public interface ExcelParser<T> extends Parser<T> {
     String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
     String EXCEL_FILE_TYPE = "excel";
     String EXCEL_MEDIA_TYPE = "application/vnd.ms-excel";
+    // the number of the rows kept in the memory while writing
+    int WRITE_WINDOW_SIZE = 100;
 
     /**
      * @param file
@@ -55,6 +80,17 @@ public interface ExcelParser<T> extends Parser<T> {
      */
     String getSheetName();
 
+    /**
+     * Returns true if the <code>readStream</code> streams the rows of the sheet instead of loading the workbook. The
+     * streamed cells are only valid during <code>readCells</code> and have the cached values of the formulas. Override
+     * to return false for the <code>readCells</code> which needs the workbook model.
+     *
+     * @return
+     */
+    default boolean isStreamingReader() {
+        return true;
+    }
+
     /**
      * Returns the list of <code>T</code> object after parsing the <code>InputStream</code> objects.
      *
@@ -63,7 +99,227 @@ public interface ExcelParser<T> extends Parser<T> {
      */
     @Override
     default List<T> readStream(InputStream inputStream) {
-        LOGGER.debug("+readStream({})", inputStream);
+        if (isStreamingReader()) {
+            try (Stream<T> tStream = streamExcelStream(inputStream)) {
+                return tStream.collect(Collectors.toList());
+            } catch (IOException ex) {
+                LOGGER.debug("Error while parsing Excel file! Error: {}, {}", ex.getMessage(), ex);
+                throw new RuntimeException("Failed to parse Excel file: " + ex.getMessage());
+            }
+        }
+
+        return readWorkbook(inputStream);
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>getSheetName()</code> sheet of the
+     * <code>inputStream</code>. The stream is first copied to a temporary file (the package is read from the file
+     * without loading it), which is deleted when the stream is closed.
+     *
+     * @param inputStream
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamExcelStream(InputStream inputStream) throws IOException {
+        final Path excelPath = Files.createTempFile("excel-", ".xlsx");
+        try {
+            Files.copy(inputStream, excelPath, StandardCopyOption.REPLACE_EXISTING);
+            return streamExcelFile(excelPath).onClose(() -> {
+                try {
+                    Files.deleteIfExists(excelPath);
+                } catch (IOException ex) {
+                    LOGGER.warn("Could not delete the file:{}!", excelPath, ex);
+                }
+            });
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(excelPath);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>getSheetName()</code> sheet of the local
+     * <code>excelPath</code> file. The rows are pulled from the XML of the sheet as the stream is consumed, so the
+     * memory stays constant regardless of the number of the rows. Close the stream to close the file.
+     *
+     * @param excelPath
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamExcelFile(Path excelPath) throws IOException {
+        final SheetRowIterator rows = SheetRowIterator.open(excelPath, getSheetName(), null);
+
+        // skip header
+        if (rows.hasNext()) {
+            rows.next();
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+            .map(row -> readCells(row.iterator()))
+            .onClose(() -> {
+                try {
+                    rows.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+    }
+
+    /**
+     * Returns the names of the sheets read by the uploads, the empty list reads all the sheets. Defaults to the
+     * <code>getSheetName()</code> sheet. The uploads of the other sheets import the rows of one sheet after the other,
+     * with <code>readCells</code> called on the importing thread. The <code>readCells</code> of the parsers which
+     * also use <code>readSheets</code> must be thread-safe, as it's called concurrently for the different sheets.
+     *
+     * @return
+     */
+    default List<String> getReadSheetNames() {
+        return Collections.singletonList(getSheetName());
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>sheetNames</code> sheets (or of all the sheets, if
+     * empty) of the <code>inputStream</code>, in the order of the names (or of the workbook). The stream is first
+     * copied to a temporary file, which is deleted when the stream is closed.
+     *
+     * @param inputStream
+     * @param sheetNames
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamSheets(InputStream inputStream, Collection<String> sheetNames) throws IOException {
+        final Path excelPath = Files.createTempFile("excel-", ".xlsx");
+        try {
+            Files.copy(inputStream, excelPath, StandardCopyOption.REPLACE_EXISTING);
+            return streamSheets(excelPath, sheetNames).onClose(() -> {
+                try {
+                    Files.deleteIfExists(excelPath);
+                } catch (IOException ex) {
+                    LOGGER.warn("Could not delete the file:{}!", excelPath, ex);
+                }
+            });
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(excelPath);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the lazily parsed <code>T</code> objects of the <code>sheetNames</code> sheets (or of all the sheets, if
+     * empty) of the local <code>excelPath</code> file, one sheet after the other in the order of the names (or of the
+     * workbook). Only the sheet being consumed is open and <code>readCells</code> is called on the consuming thread,
+     * so the memory stays constant regardless of the number of the sheets or the rows. Close the stream to close the
+     * file.
+     *
+     * @param excelPath
+     * @param sheetNames
+     * @return
+     * @throws IOException
+     */
+    default Stream<T> streamSheets(Path excelPath, Collection<String> sheetNames) throws IOException {
+        final List<String> readSheetNames;
+        final SharedStrings sharedStrings;
+        final OPCPackage opcPackage = SheetRowIterator.openPackage(excelPath);
+        try {
+            readSheetNames = SheetRowIterator.sheetNamesOf(opcPackage, sheetNames);
+            // parse the shared strings once for all the sheets
+            sharedStrings = SheetRowIterator.sharedStringsOf(opcPackage);
+        } finally {
+            opcPackage.revert();
+        }
+
+        final ExcelSheetsIterator<T> sheets = new ExcelSheetsIterator<>(this, excelPath, readSheetNames, sharedStrings);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(sheets, Spliterator.ORDERED), false)
+            .onClose(() -> {
+                try {
+                    sheets.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+    }
+
+    /**
+     * Returns the <code>T</code> objects of each of the <code>sheetNames</code> sheets (or of all the sheets, if
+     * empty) of the <code>inputStream</code>, keyed by the sheet name. The stream is copied to a temporary file, which
+     * is deleted after reading. All the objects are held in the memory and <code>readCells</code> must be
+     * thread-safe, see <code>readSheets(Path, Collection)</code>.
+     *
+     * @param inputStream
+     * @param sheetNames
+     * @return
+     * @throws IOException
+     */
+    default Map<String, List<T>> readSheets(InputStream inputStream, Collection<String> sheetNames)
+        throws IOException {
+        final Path excelPath = Files.createTempFile("excel-", ".xlsx");
+        try {
+            Files.copy(inputStream, excelPath, StandardCopyOption.REPLACE_EXISTING);
+            return readSheets(excelPath, sheetNames);
+        } finally {
+            Files.deleteIfExists(excelPath);
+        }
+    }
+
+    /**
+     * Returns the <code>T</code> objects of each of the <code>sheetNames</code> sheets (or of all the sheets, if
+     * empty) of the local <code>excelPath</code> file, keyed by the sheet name in the order of the names (or of the
+     * workbook). The sheets are parsed concurrently in the common fork-join pool and the objects of each sheet are in
+     * the order of its rows, so reading a workbook takes about as long as its largest sheet.
+     * <p>
+     * The <code>readCells</code> is called concurrently for the different sheets, so it must be thread-safe (not
+     * share any mutable state between the calls). All the objects of all the sheets are held in the memory, use
+     * <code>streamSheets</code> to process the large workbooks one row at a time.
+     * </p>
+     *
+     * @param excelPath
+     * @param sheetNames
+     * @return
+     * @throws IOException
+     */
+    default Map<String, List<T>> readSheets(Path excelPath, Collection<String> sheetNames) throws IOException {
+        final List<String> readSheetNames;
+        final SharedStrings sharedStrings;
+        final OPCPackage opcPackage = SheetRowIterator.openPackage(excelPath);
+        try {
+            readSheetNames = SheetRowIterator.sheetNamesOf(opcPackage, sheetNames);
+            // parse the shared strings once for all the sheets
+            sharedStrings = SheetRowIterator.sharedStringsOf(opcPackage);
+        } finally {
+            opcPackage.revert();
+        }
+
+        final List<ForkJoinTask<List<T>>> sheetTasks = new ArrayList<>(readSheetNames.size());
+        for (String sheetName : readSheetNames) {
+            sheetTasks.add(ForkJoinPool.commonPool().submit(new ExcelSheetTask<>(this, excelPath, sheetName,
+                                                                                 sharedStrings)));
+        }
+
+        final Map<String, List<T>> sheets = new LinkedHashMap<>();
+        try {
+            for (int index = 0; index < readSheetNames.size(); index++) {
+                sheets.put(readSheetNames.get(index), sheetTasks.get(index).join());
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            // stop the sheets still parsing after a failure
+            sheetTasks.forEach(sheetTask -> sheetTask.cancel(false));
+        }
+        LOGGER.debug("readSheets({}), sheets: {}", excelPath, sheets.keySet());
+
+        return sheets;
+    }
+
+    /**
+     * Returns the list of <code>T</code> object after parsing the <code>InputStream</code> objects with the workbook
+     * model.
+     *
+     * @param inputStream
+     * @return
+     */
+    default List<T> readWorkbook(InputStream inputStream) {
+        LOGGER.debug("+readWorkbook({})", inputStream);
         try {
             final List<T> listObjects = new ArrayList<>();
             Workbook workbook = new XSSFWorkbook(inputStream);
@@ -85,7 +341,7 @@ public interface ExcelParser<T> extends Parser<T> {
 
             workbook.close();
 
-            LOGGER.debug("-readStream(), listObjects: {}", listObjects);
+            LOGGER.debug("-readWorkbook(), listObjects: {}", listObjects);
             return listObjects;
         } catch (IOException ex) {
             LOGGER.debug("Error while parsing Excel file! Error: {}, {}", ex.getMessage(), ex);
@@ -119,16 +375,43 @@ public interface ExcelParser<T> extends Parser<T> {
     }
 
     /**
-     * Adds the <code>T</code> object values as cells of the provided <code>row</code>.
+     * Returns the values of the cells of the row of the <code>T</code> object. The numbers, booleans and dates are
+     * written as the typed cells (see <code>ExcelUtils.setCellValue</code>), which sort, sum and format in Excel
+     * without the conversion of the texts. Defaults to the text cells of the <code>buildRowCells</code>.
+     *
+     * @param t
+     * @return
+     */
+    default List<?> buildRowValues(T t) {
+        return buildRowCells(t);
+    }
+
+    /**
+     * Adds the <code>T</code> object values as cells of the provided <code>row</code>. The styles of the cells are
+     * cached only for this row, use <code>addCells(Row, T, Map)</code> to share them between the rows of a workbook.
      *
      * @param row
      * @param t
      */
     default void addCells(Row row, T t) {
+        addCells(row, t, new HashMap<>());
+    }
+
+    /**
+     * Adds the <code>T</code> object values as cells of the provided <code>row</code>, with the styles of the
+     * <code>cellStyles</code> cache of the workbook of the row.
+     *
+     * @param row
+     * @param t
+     * @param cellStyles
+     */
+    default void addCells(Row row, T t, Map<String, CellStyle> cellStyles) {
         BeanUtils.assertNonNull(row, "The row object should not be null!");
         BeanUtils.assertNonNull(t, "The T object should not be null!");
-        final AtomicInteger cellIndex = new AtomicInteger(0);
-        buildRowCells(t).forEach(item -> row.createCell(cellIndex.getAndIncrement()).setCellValue(item));
+        int cellIndex = 0;
+        for (Object value : buildRowValues(t)) {
+            ExcelUtils.setCellValue(row.createCell(cellIndex++), value, cellStyles);
+        }
     }
 
     /**
@@ -136,34 +419,137 @@ public interface ExcelParser<T> extends Parser<T> {
      * @param tList
      */
     default void addRows(Sheet sheet, List<T> tList) {
+        addRows(sheet, tList, new HashMap<>());
+    }
+
+    /**
+     * Adds the rows of the <code>tList</code> objects to the <code>sheet</code>, with the styles of the
+     * <code>cellStyles</code> cache of the workbook of the sheet.
+     *
+     * @param sheet
+     * @param tList
+     * @param cellStyles
+     */
+    default void addRows(Sheet sheet, List<T> tList, Map<String, CellStyle> cellStyles) {
         LOGGER.debug("+addRows({}, {})", sheet, tList);
         BeanUtils.assertNonNull(sheet, "The sheet should not be null!");
         // fill rows with the provided data
         if (BeanUtils.isNotEmpty(tList)) {
             final AtomicInteger rowIndex = new AtomicInteger(0);
-            tList.forEach(item -> addCells(sheet.createRow(rowIndex.incrementAndGet()), item));
+            tList.forEach(item -> addCells(sheet.createRow(rowIndex.incrementAndGet()), item, cellStyles));
         }
         LOGGER.debug("-addRows(), physicalNumberOfRows: {}", sheet.getPhysicalNumberOfRows());
     }
 
     /**
+     * Returns the number of the rows kept in the memory while writing, the older rows are flushed to the temporary
+     * (compressed) file of the sheet. Override to return -1 for the <code>addCells</code> which accesses the flushed
+     * rows (or the auto-sized columns), which keeps all the rows in the memory.
+     *
+     * @return
+     */
+    default int getWriteWindowSize() {
+        return WRITE_WINDOW_SIZE;
+    }
+
+    /**
+     * Writes the workbook of the <code>excelSheetName</code> sheet with the <code>sheetHeaders</code> and the rows
+     * added by the <code>rowsWriter</code> to the <code>outputStream</code>. The rows are written through the sliding
+     * window of <code>getWriteWindowSize()</code> rows, so the memory doesn't grow with the number of the rows. The
+     * <code>rowsWriter</code> gets the cell styles cache of this workbook, which lives as long as this call.
+     *
+     * @param outputStream
      * @param excelSheetName
      * @param sheetHeaders
-     * @param tList
-     * @return
+     * @param rowsWriter
+     * @throws IOException
      */
-    default InputStreamResource buildStreamResources(String excelSheetName, String[] sheetHeaders, List<T> tList) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream byteStream = new ByteArrayOutputStream();) {
-            Sheet sheet = workbook.createSheet(excelSheetName);
+    default void writeWorkbook(OutputStream outputStream, String excelSheetName, String[] sheetHeaders,
+                               BiConsumer<Sheet, Map<String, CellStyle>> rowsWriter) throws IOException {
+        final SXSSFWorkbook workbook = new SXSSFWorkbook(getWriteWindowSize());
+        try {
+            workbook.setCompressTempFiles(true);
+            final Sheet sheet = workbook.createSheet(excelSheetName);
             // Headers Row
             addHeaders(sheet, sheetHeaders);
             // add rows to the sheet
-            addRows(sheet, tList);
-            // write sheet to byte stream
-            workbook.write(byteStream);
-            return new InputStreamResource(new ByteArrayInputStream(byteStream.toByteArray()));
+            rowsWriter.accept(sheet, new HashMap<>());
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            // delete the temporary files of the sheets
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Writes the headers and the rows of the <code>tIterable</code> objects directly to the <code>outputStream</code>
+     * (like the servlet response), as the objects are iterated.
+     *
+     * @param outputStream
+     * @param tIterable
+     * @throws IOException
+     */
+    @Override
+    default void writeStream(OutputStream outputStream, Iterable<T> tIterable) throws IOException {
+        writeWorkbook(outputStream, getSheetName(), getWriteHeaders(), (sheet, cellStyles) -> {
+            if (BeanUtils.isNotNull(tIterable)) {
+                int rowIndex = 0;
+                for (T t : tIterable) {
+                    addCells(sheet.createRow(++rowIndex), t, cellStyles);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the Excel bytes of the <code>tList</code> objects.
+     *
+     * @param tList
+     * @return
+     */
+    @Override
+    default OutputStream writeStream(List<T> tList) {
+        final ByteArrayOutputStream excelByteStream = new ByteArrayOutputStream();
+        try {
+            writeStream(excelByteStream, tList);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return excelByteStream;
+    }
+
+    /**
+     * Builds the resource of the workbook of the <code>tList</code> objects. The workbook is written to a temporary
+     * file instead of being copied in the memory. The file is deleted before returning, while the resource stream
+     * keeps reading it (until closed), so it's never left behind, even if the resource is never read or the writing
+     * fails. The platforms which can't delete the open files delete it when the stream is closed.
+     *
+     * @param excelSheetName
+     * @param sheetHeaders
+     * @param tList
+     * @return
+     */
+    default InputStreamResource buildStreamResources(String excelSheetName, String[] sheetHeaders, List<T> tList)
+        throws IOException {
+        final Path excelPath = Files.createTempFile("excel-", ".xlsx");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(excelPath))) {
+                writeWorkbook(outputStream, excelSheetName, sheetHeaders,
+                              (sheet, cellStyles) -> addRows(sheet, tList, cellStyles));
+            }
+
+            return new InputStreamResource(Files.newInputStream(excelPath, StandardOpenOption.DELETE_ON_CLOSE));
         } catch (IOException ex) {
             throw new IOException("Failed to import data from Excel file! Error=" + ex.getMessage(), ex);
+        } finally {
+            try {
+                Files.deleteIfExists(excelPath);
+            } catch (IOException ex) {
+                // the open file is deleted when the stream is closed
+            }
         }
     }
 
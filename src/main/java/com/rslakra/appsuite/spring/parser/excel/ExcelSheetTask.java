@@ -0,0 +1,61 @@
+package com.rslakra.appsuite.spring.parser.excel;
+
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses the rows (after the header) of a sheet of the Excel file with <code>readCells</code>, in the order of the
+ * sheet. Each task opens the file separately, so the sheets are parsed concurrently, and shares the read-only
+ * <code>sharedStrings</code> of the file.
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 10:20 AM
+ */
+final class ExcelSheetTask<T> extends RecursiveTask<List<T>> {
+
+    private final ExcelParser<T> excelParser;
+    private final Path excelPath;
+    private final String sheetName;
+    private final SharedStrings sharedStrings;
+
+    /**
+     * @param excelParser
+     * @param excelPath
+     * @param sheetName
+     * @param sharedStrings
+     */
+    ExcelSheetTask(ExcelParser<T> excelParser, Path excelPath, String sheetName, SharedStrings sharedStrings) {
+        this.excelParser = excelParser;
+        this.excelPath = excelPath;
+        this.sheetName = sheetName;
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * @return
+     */
+    @Override
+    protected List<T> compute() {
+        try (SheetRowIterator rows = SheetRowIterator.open(excelPath, sheetName, sharedStrings)) {
+            // skip header
+            if (rows.hasNext()) {
+                rows.next();
+            }
+
+            final List<T> tList = new ArrayList<>();
+            while (rows.hasNext()) {
+                tList.add(excelParser.readCells(rows.next().iterator()));
+            }
+
+            return tList;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.rslakra.appsuite.spring.parser.excel;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import org.apache.poi.xssf.model.SharedStrings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the <code>T</code> objects of the rows (after the header) of the sheets of the Excel file, one sheet after
+ * the other in the order of the <code>sheetNames</code>. Only the current sheet is open and its rows are parsed with
+ * <code>readCells</code> on the iterating thread as they are pulled, so the memory doesn't grow with the number of the
+ * sheets or the rows. The read-only <code>sharedStrings</code> of the file are shared by the sheets.
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 4:40 PM
+ */
+final class ExcelSheetsIterator<T> implements Iterator<T>, Closeable {
+
+    private final ExcelParser<T> excelParser;
+    private final Path excelPath;
+    private final Iterator<String> sheetNames;
+    private final SharedStrings sharedStrings;
+    private SheetRowIterator rows;
+    private boolean closed;
+
+    /**
+     * @param excelParser
+     * @param excelPath
+     * @param sheetNames
+     * @param sharedStrings
+     */
+    ExcelSheetsIterator(ExcelParser<T> excelParser, Path excelPath, List<String> sheetNames,
+                        SharedStrings sharedStrings) {
+        this.excelParser = excelParser;
+        this.excelPath = excelPath;
+        this.sheetNames = sheetNames.iterator();
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * Returns true if the current (or any of the next) sheets has more rows, opening the next sheets as needed.
+     *
+     * @return
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            while (!closed && (BeanUtils.isNull(rows) || !rows.hasNext())) {
+                if (BeanUtils.isNotNull(rows)) {
+                    rows.close();
+                    rows = null;
+                }
+
+                if (!sheetNames.hasNext()) {
+                    return false;
+                }
+
+                rows = SheetRowIterator.open(excelPath, sheetNames.next(), sharedStrings);
+                // skip header
+                if (rows.hasNext()) {
+                    rows.next();
+                }
+            }
+
+            return !closed;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return excelParser.readCells(rows.next().iterator());
+    }
+
+    /**
+     * Closes the current sheet, if any.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (BeanUtils.isNotNull(rows)) {
+            rows.close();
+            rows = null;
+        }
+    }
+}
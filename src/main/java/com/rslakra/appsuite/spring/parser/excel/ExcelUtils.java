@@ -1,8 +1,22 @@
 package com.rslakra.appsuite.spring.parser.excel;
 
+import com.rslakra.appsuite.core.BeanUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Consumer;
+
 /**
  * @author Rohtash Lakra
  * @created 9/29/22 6:33 PM
@@ -13,4 +27,109 @@ public enum ExcelUtils {
     // LOGGER
     private static final Logger LOGGER = LoggerFactory.getLogger(ExcelUtils.class);
 
+    // the data formats of the date cells
+    public static final String DATE_FORMAT = "yyyy-mm-dd";
+    public static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+    // the numbers of more digits lose the precision in the numeric cells
+    private static final int MAX_NUMERIC_DIGITS = 15;
+    private static final long MAX_NUMERIC_LONG = 999_999_999_999_999L;
+
+    /**
+     * Returns the style of the <code>styleKey</code> of the <code>workbook</code> from the <code>cellStyles</code>
+     * cache, created (and initialized by the <code>initializer</code>) only once per cache. Use the cached styles
+     * instead of creating a style per cell, which bloats the styles of the file (and is limited to 64000 styles).
+     * <p>
+     * The cache belongs to the single writer of the workbook (like a <code>writeWorkbook</code> call), so it's not
+     * synchronized and is released with the workbook.
+     * </p>
+     *
+     * @param workbook
+     * @param cellStyles
+     * @param styleKey
+     * @param initializer
+     * @return
+     */
+    public static CellStyle getCellStyle(Workbook workbook, Map<String, CellStyle> cellStyles, String styleKey,
+                                         Consumer<CellStyle> initializer) {
+        BeanUtils.assertNonNull(workbook, "The workbook should not be null!");
+        BeanUtils.assertNonNull(cellStyles, "The cellStyles should not be null!");
+        return cellStyles.computeIfAbsent(styleKey, key -> {
+            final CellStyle cellStyle = workbook.createCellStyle();
+            initializer.accept(cellStyle);
+            LOGGER.debug("getCellStyle({}), index: {}", styleKey, cellStyle.getIndex());
+            return cellStyle;
+        });
+    }
+
+    /**
+     * Returns the cached style of the <code>dataFormat</code> (like <code>0.00</code> or <code>yyyy-mm-dd</code>) of
+     * the <code>workbook</code>.
+     *
+     * @param workbook
+     * @param cellStyles
+     * @param dataFormat
+     * @return
+     */
+    public static CellStyle getDataFormatStyle(Workbook workbook, Map<String, CellStyle> cellStyles,
+                                               String dataFormat) {
+        return getCellStyle(workbook, cellStyles, "dataFormat:" + dataFormat,
+                            cellStyle -> cellStyle.setDataFormat(workbook.createDataFormat().getFormat(dataFormat)));
+    }
+
+    /**
+     * Returns true if the <code>number</code> is exact in the numeric (double) cell.
+     *
+     * @param number
+     * @return
+     */
+    private static boolean isExactNumber(Number number) {
+        if (number instanceof Long) {
+            return Math.abs(number.longValue()) <= MAX_NUMERIC_LONG;
+        } else if (number instanceof BigInteger) {
+            return ((BigInteger) number).abs().compareTo(BigInteger.valueOf(MAX_NUMERIC_LONG)) <= 0;
+        } else if (number instanceof BigDecimal) {
+            return ((BigDecimal) number).precision() <= MAX_NUMERIC_DIGITS;
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets the <code>value</code> on the <code>cell</code> with the cell type of the value: the numbers (which fit in
+     * the 15 digits of the Excel precision, the others as text) and booleans as typed cells, the dates as numbers with
+     * the date style of the <code>cellStyles</code> cache, the <code>null</code> as a blank cell and anything else as
+     * text.
+     *
+     * @param cell
+     * @param value
+     * @param cellStyles
+     */
+    public static void setCellValue(Cell cell, Object value, Map<String, CellStyle> cellStyles) {
+        if (BeanUtils.isNull(value)) {
+            cell.setBlank();
+        } else if (value instanceof String) {
+            cell.setCellValue((String) value);
+        } else if (value instanceof Number && isExactNumber((Number) value)) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue((LocalDate) value);
+            cell.setCellStyle(getDataFormatStyle(cell.getSheet().getWorkbook(), cellStyles, DATE_FORMAT));
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue((LocalDateTime) value);
+            cell.setCellStyle(getDataFormatStyle(cell.getSheet().getWorkbook(), cellStyles, DATE_TIME_FORMAT));
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(getDataFormatStyle(cell.getSheet().getWorkbook(), cellStyles, DATE_TIME_FORMAT));
+        } else if (value instanceof Calendar) {
+            cell.setCellValue((Calendar) value);
+            cell.setCellStyle(getDataFormatStyle(cell.getSheet().getWorkbook(), cellStyles, DATE_TIME_FORMAT));
+        } else if (value instanceof Instant) {
+            cell.setCellValue(Date.from((Instant) value));
+            cell.setCellStyle(getDataFormatStyle(cell.getSheet().getWorkbook(), cellStyles, DATE_TIME_FORMAT));
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
 }
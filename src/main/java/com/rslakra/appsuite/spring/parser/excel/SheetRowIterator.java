@@ -0,0 +1,417 @@
+package com.rslakra.appsuite.spring.parser.excel;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the rows of a sheet of the <code>.xlsx</code> package, pulling the XML of the sheet with the StAX reader
+ * instead of loading the workbook model, so the memory doesn't grow with the number of the rows.
+ * <p>
+ * The cells of each row are set on a single scratch row (of a scratch workbook, which keeps the string values in the
+ * cells instead of its shared strings table) with the types of the file: the shared and inline strings, the numbers
+ * (with the data format of the file, so the dates are detected), the booleans and the cached results of the formulas.
+ * The returned row is only valid until the next call of <code>hasNext()</code> or <code>next()</code>.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 9:20 PM
+ */
+final class SheetRowIterator implements Iterator<Row>, Closeable {
+
+    private final OPCPackage opcPackage;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xmlReader;
+    private final SharedStrings sharedStrings;
+    private final StylesTable stylesTable;
+    private final SXSSFWorkbook scratchWorkbook;
+    private final SXSSFSheet scratchSheet;
+    // the scratch styles of the style indexes of the file
+    private final Map<Integer, CellStyle> cellStyles = new HashMap<>();
+    private Row row;
+    private boolean ready;
+    private boolean ended;
+
+    /**
+     * Opens the sheet of the <code>sheetName</code> of the <code>opcPackage</code>, which is closed with the iterator.
+     * The shared strings of the package are loaded, unless the <code>sharedStrings</code> are provided.
+     *
+     * @param opcPackage
+     * @param sheetName
+     * @param sharedStrings
+     * @throws IOException
+     */
+    SheetRowIterator(OPCPackage opcPackage, String sheetName, SharedStrings sharedStrings) throws IOException {
+        this.opcPackage = opcPackage;
+        InputStream sheetStream = null;
+        try {
+            final XSSFReader xssfReader = newXSSFReader(opcPackage);
+            final XSSFReader.SheetIterator sheets = xssfReader.getSheetIterator();
+            while (BeanUtils.isNull(sheetStream) && sheets.hasNext()) {
+                final InputStream nextStream = sheets.next();
+                if (sheets.getSheetName().equals(sheetName)) {
+                    sheetStream = nextStream;
+                } else {
+                    nextStream.close();
+                }
+            }
+
+            if (BeanUtils.isNull(sheetStream)) {
+                throw new IllegalArgumentException("No sheet of the name:" + sheetName);
+            }
+
+            this.sheetStream = sheetStream;
+            this.sharedStrings = (BeanUtils.isNull(sharedStrings) ? xssfReader.getSharedStringsTable() : sharedStrings);
+            this.stylesTable = xssfReader.getStylesTable();
+            this.xmlReader = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetStream);
+        } catch (OpenXML4JException | XMLStreamException ex) {
+            closeQuietly(sheetStream);
+            throw new IOException("Failed to open the sheet:" + sheetName, ex);
+        } catch (IOException | RuntimeException ex) {
+            closeQuietly(sheetStream);
+            throw ex;
+        }
+
+        this.scratchWorkbook = new SXSSFWorkbook(-1);
+        this.scratchSheet = scratchWorkbook.createSheet();
+    }
+
+    /**
+     * Opens the sheet of the <code>sheetName</code> of the <code>opcPackage</code>, which is closed with the iterator.
+     *
+     * @param opcPackage
+     * @param sheetName
+     * @throws IOException
+     */
+    SheetRowIterator(OPCPackage opcPackage, String sheetName) throws IOException {
+        this(opcPackage, sheetName, null);
+    }
+
+    /**
+     * Opens the sheet of the <code>sheetName</code> of the <code>excelPath</code> file.
+     *
+     * @param excelPath
+     * @param sheetName
+     * @param sharedStrings
+     * @return
+     * @throws IOException
+     */
+    static SheetRowIterator open(Path excelPath, String sheetName, SharedStrings sharedStrings) throws IOException {
+        final OPCPackage opcPackage = openPackage(excelPath);
+        try {
+            return new SheetRowIterator(opcPackage, sheetName, sharedStrings);
+        } catch (IOException | RuntimeException ex) {
+            opcPackage.revert();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens the package of the <code>excelPath</code> file for reading, without loading it.
+     *
+     * @param excelPath
+     * @return
+     * @throws IOException
+     */
+    static OPCPackage openPackage(Path excelPath) throws IOException {
+        try {
+            return OPCPackage.open(excelPath.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException ex) {
+            throw new IOException("Invalid Excel file:" + excelPath, ex);
+        }
+    }
+
+    /**
+     * Returns the reader of the parts of the <code>opcPackage</code>.
+     *
+     * @param opcPackage
+     * @return
+     * @throws IOException
+     */
+    private static XSSFReader newXSSFReader(OPCPackage opcPackage) throws IOException {
+        try {
+            final XSSFReader xssfReader = new XSSFReader(opcPackage);
+            xssfReader.setUseReadOnlySharedStringsTable(true);
+            return xssfReader;
+        } catch (OpenXML4JException ex) {
+            throw new IOException("Invalid Excel package!", ex);
+        }
+    }
+
+    /**
+     * Returns the names of the sheets of the <code>opcPackage</code>, in the order of the workbook.
+     *
+     * @param opcPackage
+     * @return
+     * @throws IOException
+     */
+    static List<String> sheetNamesOf(OPCPackage opcPackage) throws IOException {
+        try {
+            final List<String> sheetNames = new ArrayList<>();
+            final XSSFReader.SheetIterator sheets = newXSSFReader(opcPackage).getSheetIterator();
+            while (sheets.hasNext()) {
+                sheets.next().close();
+                sheetNames.add(sheets.getSheetName());
+            }
+
+            return sheetNames;
+        } catch (InvalidFormatException ex) {
+            throw new IOException("Invalid Excel package!", ex);
+        }
+    }
+
+    /**
+     * Returns the distinct <code>sheetNames</code> in their order (or the names of all the sheets, if empty) of the
+     * <code>opcPackage</code>.
+     *
+     * @param opcPackage
+     * @param sheetNames
+     * @return
+     * @throws IOException
+     */
+    static List<String> sheetNamesOf(OPCPackage opcPackage, Collection<String> sheetNames) throws IOException {
+        final List<String> allSheetNames = sheetNamesOf(opcPackage);
+        if (BeanUtils.isNull(sheetNames) || sheetNames.isEmpty()) {
+            return allSheetNames;
+        }
+
+        final List<String> readSheetNames = new ArrayList<>(new LinkedHashSet<>(sheetNames));
+        for (String sheetName : readSheetNames) {
+            if (!allSheetNames.contains(sheetName)) {
+                throw new IllegalArgumentException("No sheet of the name:" + sheetName);
+            }
+        }
+
+        return readSheetNames;
+    }
+
+    /**
+     * Returns the read-only shared strings of the <code>opcPackage</code>, which can be shared by the iterators of
+     * its sheets across the threads.
+     *
+     * @param opcPackage
+     * @return
+     * @throws IOException
+     */
+    static SharedStrings sharedStringsOf(OPCPackage opcPackage) throws IOException {
+        try {
+            return newXSSFReader(opcPackage).getSharedStringsTable();
+        } catch (InvalidFormatException ex) {
+            throw new IOException("Invalid Excel package!", ex);
+        }
+    }
+
+    /**
+     * Closes the <code>closeable</code>, ignoring the failure.
+     *
+     * @param closeable
+     */
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (BeanUtils.isNotNull(closeable)) {
+                closeable.close();
+            }
+        } catch (IOException ex) {
+            // already failed
+        }
+    }
+
+    /**
+     * Returns the scratch style with the data format of the <code>styleIndex</code> style of the file.
+     *
+     * @param styleIndex
+     * @return
+     */
+    private CellStyle cellStyleOf(Integer styleIndex) {
+        final CellStyle cellStyle = scratchWorkbook.createCellStyle();
+        if (BeanUtils.isNotNull(stylesTable) && styleIndex < stylesTable.getNumCellStyles()) {
+            final XSSFCellStyle fileStyle = stylesTable.getStyleAt(styleIndex);
+            final String dataFormat = fileStyle.getDataFormatString();
+            if (BeanUtils.isNotNull(dataFormat)) {
+                cellStyle.setDataFormat(scratchWorkbook.createDataFormat().getFormat(dataFormat));
+            }
+        }
+
+        return cellStyle;
+    }
+
+    /**
+     * Reads the <code>c</code> element of the XML reader into a cell of the row. Returns the column of the cell.
+     *
+     * @param previousColumn
+     * @return
+     * @throws XMLStreamException
+     */
+    private int readCell(int previousColumn) throws XMLStreamException {
+        final String reference = xmlReader.getAttributeValue(null, "r");
+        final String type = xmlReader.getAttributeValue(null, "t");
+        final String style = xmlReader.getAttributeValue(null, "s");
+        final int column = (BeanUtils.isNull(reference) ? previousColumn + 1 : new CellReference(reference).getCol());
+        String value = null;
+        StringBuilder inlineText = null;
+        while (xmlReader.hasNext()) {
+            final int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                final String element = xmlReader.getLocalName();
+                if ("v".equals(element)) {
+                    value = xmlReader.getElementText();
+                } else if ("is".equals(element)) {
+                    inlineText = new StringBuilder();
+                } else if ("t".equals(element) && BeanUtils.isNotNull(inlineText)) {
+                    inlineText.append(xmlReader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+
+        // the cells without any value are blank
+        final Cell cell = row.createCell(column);
+        if (BeanUtils.isNotNull(inlineText)) {
+            cell.setCellValue(inlineText.toString());
+        } else if (BeanUtils.isNotNull(value)) {
+            setCellValue(cell, type, style, value);
+        }
+
+        return column;
+    }
+
+    /**
+     * Sets the <code>value</code> of the <code>type</code> on the <code>cell</code>.
+     *
+     * @param cell
+     * @param type
+     * @param style
+     * @param value
+     */
+    private void setCellValue(Cell cell, String type, String style, String value) {
+        if ("s".equals(type)) {
+            cell.setCellValue(sharedStrings.getItemAt(Integer.parseInt(value)).getString());
+        } else if ("b".equals(type)) {
+            cell.setCellValue("1".equals(value));
+        } else if (BeanUtils.isNull(type) || "n".equals(type)) {
+            cell.setCellValue(Double.parseDouble(value));
+            if (BeanUtils.isNotNull(style)) {
+                cell.setCellStyle(cellStyles.computeIfAbsent(Integer.valueOf(style), this::cellStyleOf));
+            }
+        } else {
+            // the string results of the formulas, the errors and the ISO dates
+            cell.setCellValue(value);
+        }
+    }
+
+    /**
+     * Reads the next <code>row</code> element of the XML reader into the scratch row. Returns false at the end of the
+     * sheet.
+     *
+     * @return
+     * @throws XMLStreamException
+     */
+    private boolean readRow() throws XMLStreamException {
+        while (xmlReader.hasNext()) {
+            final int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                final String reference = xmlReader.getAttributeValue(null, "r");
+                final int rowIndex = (BeanUtils.isNull(reference) ? (BeanUtils.isNull(row) ? 0 : row.getRowNum() + 1)
+                                                                  : Integer.parseInt(reference) - 1);
+                if (BeanUtils.isNotNull(row)) {
+                    scratchSheet.removeRow(row);
+                }
+                row = scratchSheet.createRow(rowIndex);
+                int column = -1;
+                while (xmlReader.hasNext()) {
+                    final int rowEvent = xmlReader.next();
+                    if (rowEvent == XMLStreamConstants.START_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                        column = readCell(column);
+                    } else if (rowEvent == XMLStreamConstants.END_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                        return true;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xmlReader.getLocalName())) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return
+     */
+    @Override
+    public boolean hasNext() {
+        if (!ready && !ended) {
+            try {
+                ready = readRow();
+                ended = !ready;
+            } catch (XMLStreamException ex) {
+                throw new RuntimeException("Failed to parse Excel file: " + ex.getMessage(), ex);
+            }
+        }
+
+        return ready;
+    }
+
+    /**
+     * Returns the next row, valid until the next call.
+     *
+     * @return
+     */
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        ready = false;
+        return row;
+    }
+
+    /**
+     * Closes the sheet, the package and the scratch workbook.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            xmlReader.close();
+        } catch (XMLStreamException ex) {
+            // the stream is closed below
+        } finally {
+            closeQuietly(sheetStream);
+            scratchWorkbook.dispose();
+            scratchWorkbook.close();
+            opcPackage.revert();
+        }
+    }
+}
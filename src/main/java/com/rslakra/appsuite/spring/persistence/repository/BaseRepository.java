@@ -1,13 +1,40 @@
 package com.rslakra.appsuite.spring.persistence.repository;
 
+import com.rslakra.appsuite.spring.filter.Filter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import java.util.List;
+
 /**
  * @author Rohtash Lakra
  * @created 10/15/21 1:52 PM
  */
 @NoRepositoryBean
-public interface BaseRepository<T, ID> extends JpaRepository<T, ID> {
+public interface BaseRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+    /**
+     * Returns the list of <code>T</code> objects matching the <code>filter</code>, evaluated by the database.
+     *
+     * @param filter
+     * @return
+     */
+    default List<T> findByFilter(Filter<T> filter) {
+        return findAll(FilterSpecification.of(filter));
+    }
+
+    /**
+     * Returns the page of <code>T</code> objects matching the <code>filter</code>, evaluated by the database.
+     *
+     * @param filter
+     * @param pageable
+     * @return
+     */
+    default Page<T> findByFilter(Filter<T> filter, Pageable pageable) {
+        return findAll(FilterSpecification.of(filter), pageable);
+    }
 
 }
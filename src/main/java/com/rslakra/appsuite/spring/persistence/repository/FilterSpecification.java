@@ -0,0 +1,233 @@
+package com.rslakra.appsuite.spring.persistence.repository;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.filter.Filter;
+import com.rslakra.appsuite.spring.filter.FilterUtils;
+import com.rslakra.appsuite.spring.filter.Operator;
+import com.rslakra.appsuite.spring.filter.PropertyAccessor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Translates the criteria of the <code>Filter</code> payload into a JPA <code>Specification</code>, so that the
+ * database evaluates the filter (using its indexes) instead of loading the rows and calling
+ * <code>Filter.apply</code> in memory.
+ * <p>
+ * Each key of the filter is an attribute of the entity (or a dotted path through its associations) with an optional
+ * <code>Operator</code> suffix and all the criteria are combined with <code>AND</code>. A <code>null</code> value
+ * matches the <code>IS NULL</code> attributes and the keys not mapped on the entity match nothing, the same as the
+ * in-memory filter.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 10:32 AM
+ */
+public class FilterSpecification<T> implements Specification<T> {
+
+    private static final char ESCAPE = '\\';
+
+    private final Filter<T> filter;
+
+    /**
+     * @param filter
+     */
+    public FilterSpecification(Filter<T> filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the <code>Specification</code> of the provided <code>filter</code>.
+     *
+     * @param filter
+     * @param <T>
+     * @return
+     */
+    public static <T> FilterSpecification<T> of(Filter<T> filter) {
+        return new FilterSpecification<>(filter);
+    }
+
+    /**
+     * Returns true if the entity of the <code>root</code> has the <code>attributeName</code> attribute.
+     *
+     * @param root
+     * @param attributeName
+     * @return
+     */
+    private static boolean hasAttribute(Root<?> root, String attributeName) {
+        for (Attribute<?, ?> attribute : root.getModel().getAttributes()) {
+            if (attribute.getName().equals(attributeName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the <code>Path</code> of the (dotted) <code>property</code>, or <code>null</code> if any attribute along
+     * the path isn't mapped. The nested attributes are joined implicitly.
+     *
+     * @param root
+     * @param property
+     * @return
+     */
+    private static Path<Object> pathOf(Root<?> root, String property) {
+        final String[] attributeNames = property.split(Pattern.quote(String.valueOf(PropertyAccessor.PATH_SEPARATOR)));
+        if (!hasAttribute(root, attributeNames[0])) {
+            return null;
+        }
+
+        Path<Object> path = root.get(attributeNames[0]);
+        for (int index = 1; index < attributeNames.length; index++) {
+            try {
+                path = path.get(attributeNames[index]);
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                return null;
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Escapes the <code>LIKE</code> wildcards of the <code>text</code>.
+     *
+     * @param text
+     * @return
+     */
+    private static String escapeLike(String text) {
+        final StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int index = 0; index < text.length(); index++) {
+            final char next = text.charAt(index);
+            if (next == '%' || next == '_' || next == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(next);
+        }
+
+        return escaped.toString();
+    }
+
+    /**
+     * Returns the operand of the range operators as the <code>javaType</code> of the attribute, or <code>null</code>
+     * if the <code>value</code> is <code>null</code> or empty. Nothing is greater (or less) than such an operand, the
+     * same as the in-memory filter.
+     *
+     * @param value
+     * @param javaType
+     * @return
+     */
+    @SuppressWarnings("rawtypes")
+    private static Comparable rangeOperandOf(Object value, Class<?> javaType) {
+        if (BeanUtils.isNull(value) || (value instanceof CharSequence && ((CharSequence) value).length() == 0)) {
+            return null;
+        }
+
+        return (Comparable) FilterUtils.asType(value, javaType);
+    }
+
+    /**
+     * Returns the <code>Predicate</code> of the single <code>key=value</code> criterion.
+     *
+     * @param root
+     * @param builder
+     * @param key
+     * @param value
+     * @return
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Predicate toPredicate(Root<T> root, CriteriaBuilder builder, String key, Object value) {
+        final Path path = pathOf(root, Operator.propertyOf(key));
+        if (BeanUtils.isNull(path)) {
+            return builder.disjunction();
+        }
+
+        final Class<?> javaType = path.getJavaType();
+        switch (Operator.of(key)) {
+            case NE:
+                return (BeanUtils.isNull(value) ? builder.isNotNull(path)
+                                                : builder.notEqual(path, FilterUtils.asType(value, javaType)));
+            case GT: {
+                final Comparable operand = rangeOperandOf(value, javaType);
+                return (BeanUtils.isNull(operand) ? builder.disjunction() : builder.greaterThan(path, operand));
+            }
+            case GE: {
+                final Comparable operand = rangeOperandOf(value, javaType);
+                return (BeanUtils.isNull(operand) ? builder.disjunction()
+                                                  : builder.greaterThanOrEqualTo(path, operand));
+            }
+            case LT: {
+                final Comparable operand = rangeOperandOf(value, javaType);
+                return (BeanUtils.isNull(operand) ? builder.disjunction() : builder.lessThan(path, operand));
+            }
+            case LE: {
+                final Comparable operand = rangeOperandOf(value, javaType);
+                return (BeanUtils.isNull(operand) ? builder.disjunction() : builder.lessThanOrEqualTo(path, operand));
+            }
+            case BETWEEN: {
+                final List<Object> operands = FilterUtils.toOperands(value);
+                if (operands.size() != 2) {
+                    throw new IllegalArgumentException("The 'between' operator requires 2 values, key=" + key);
+                }
+
+                final Comparable lowerOperand = rangeOperandOf(operands.get(0), javaType);
+                final Comparable upperOperand = rangeOperandOf(operands.get(1), javaType);
+                if (BeanUtils.isNull(lowerOperand) || BeanUtils.isNull(upperOperand)) {
+                    return builder.disjunction();
+                }
+
+                return builder.between(path, lowerOperand, upperOperand);
+            }
+            case IN: {
+                final List<Object> operands = FilterUtils.toOperands(value);
+                if (operands.isEmpty()) {
+                    return builder.disjunction();
+                }
+
+                final CriteriaBuilder.In<Object> predicate = builder.in(path);
+                operands.forEach(operand -> predicate.value(FilterUtils.asType(operand, javaType)));
+                return predicate;
+            }
+            case PREFIX:
+                return builder.like(path.as(String.class), escapeLike(Objects.toString(value, "")) + "%", ESCAPE);
+            case LIKE:
+                return builder.like(path.as(String.class), Objects.toString(value, ""));
+            case IS_NULL:
+                return (BeanUtils.isNull(value) || Boolean.parseBoolean(value.toString()))
+                       ? builder.isNull(path) : builder.isNotNull(path);
+            default:
+                return (BeanUtils.isNull(value) ? builder.isNull(path)
+                                                : builder.equal(path, FilterUtils.asType(value, javaType)));
+        }
+    }
+
+    /**
+     * Returns the <code>AND</code> of the predicates of all the filter criteria.
+     *
+     * @param root
+     * @param query
+     * @param builder
+     * @return
+     */
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        final List<Predicate> predicates = new ArrayList<>();
+        if (BeanUtils.isNotNull(filter)) {
+            for (String key : filter.getKeys()) {
+                predicates.add(toPredicate(root, builder, key, filter.getValue(key)));
+            }
+        }
+
+        return builder.and(predicates.toArray(new Predicate[0]));
+    }
+}
@@ -1,6 +1,7 @@
 package com.rslakra.appsuite.spring.service;
 
 import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.filter.DefaultFilter;
 import com.rslakra.appsuite.spring.filter.Filter;
 import com.rslakra.appsuite.spring.persistence.ServiceOperation;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.http.MediaType;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -74,7 +76,11 @@ public interface AbstractService<T, ID extends Serializable> {
     T getById(ID id);
 
     /**
-     * Returns the pageable <code>T</code> object by <code>pageable</code> filter.
+     * Returns the list of <code>T</code> objects matching the <code>filter</code>.
+     * <p>
+     * The implementations backed by a <code>BaseRepository</code> should use <code>findByFilter</code>, so the
+     * criteria are evaluated by the database instead of in memory.
+     * </p>
      *
      * @param filter
      * @return
@@ -84,11 +90,25 @@ public interface AbstractService<T, ID extends Serializable> {
     /**
      * Returns the pageable <code>T</code> object by <code>pageable</code> filter.
      *
+     * @param filter
      * @param pageable
      * @return
      */
     public Page<T> getByFilter(Filter<T> filter, Pageable pageable);
 
+    /**
+     * Returns all the <code>T</code> objects, fetched lazily with <code>getByFilter</code> one page at a time,
+     * starting at the <code>pageable</code> page. The <code>pageable</code> should be sorted by a unique key, so the
+     * pages are stable.
+     *
+     * @param pageable
+     * @return
+     */
+    default Iterable<T> getAllInPages(Pageable pageable) {
+        final Filter<T> filter = new DefaultFilter<>(new HashMap<>());
+        return () -> new PagedIterator<>(this, filter, pageable);
+    }
+
     /**
      * Updates the <code>T</code> object.
      *
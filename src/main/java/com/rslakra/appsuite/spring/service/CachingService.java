@@ -0,0 +1,332 @@
+package com.rslakra.appsuite.spring.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.filter.CompiledFilter;
+import com.rslakra.appsuite.spring.filter.Filter;
+import com.rslakra.appsuite.spring.persistence.ServiceOperation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The <code>AbstractService</code> decorator, which caches the results of the <code>getByFilter</code> calls, so the
+ * repeated filters (like the lists of a dashboard) don't hit the database.
+ * <p>
+ * The results are cached by the frozen filter (which is equal for the same criteria in any order) and the
+ * <code>Pageable</code>, and the least recently used results are evicted beyond the <code>maximumSize</code>. The
+ * filters which don't expose their keys can't be frozen and aren't cached. Any <code>create</code>,
+ * <code>update</code> or <code>delete</code> through this service invalidates all the cached results of the entity.
+ * The cached lists are unmodifiable.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 3:55 PM
+ */
+public class CachingService<T, ID extends Serializable> implements AbstractService<T, ID> {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final AbstractService<T, ID> service;
+    private final Cache<CacheKey, Object> results;
+    // incremented by the writes, the results loaded across a write aren't cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param service
+     * @param maximumSize
+     */
+    public CachingService(AbstractService<T, ID> service, long maximumSize) {
+        BeanUtils.assertNonNull(service, "service should not be null!");
+        this.service = service;
+        this.results = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * @param service
+     */
+    public CachingService(AbstractService<T, ID> service) {
+        this(service, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Returns the decorated service.
+     *
+     * @return
+     */
+    public AbstractService<T, ID> getService() {
+        return service;
+    }
+
+    /**
+     * Returns the number of the cached results.
+     *
+     * @return
+     */
+    public long getCachedSize() {
+        return results.size();
+    }
+
+    /**
+     * Invalidates all the cached results.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    /**
+     * Returns the cached result of the <code>key</code>, or loads and caches it. The result is not cached if a write
+     * happened while it was loaded.
+     *
+     * @param key
+     * @param loader
+     * @param <R>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R getOrLoad(CacheKey key, Supplier<R> loader) {
+        R result = (R) results.getIfPresent(key);
+        if (BeanUtils.isNull(result)) {
+            final long loadGeneration = generation.get();
+            result = loader.get();
+            if (BeanUtils.isNotNull(result) && loadGeneration == generation.get()) {
+                results.put(key, result);
+                // a write raced with the put
+                if (loadGeneration != generation.get()) {
+                    results.invalidate(key);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Validates the <code>T</code> object.
+     *
+     * @param serviceOperation
+     * @param t
+     * @return
+     */
+    @Override
+    public T validate(ServiceOperation serviceOperation, T t) {
+        return service.validate(serviceOperation, t);
+    }
+
+    /**
+     * Creates the <code>T</code> object.
+     *
+     * @param t
+     * @return
+     */
+    @Override
+    public T create(T t) {
+        try {
+            return service.create(t);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Creates the <code>List<T></code> objects.
+     *
+     * @param ts
+     * @return
+     */
+    @Override
+    public List<T> create(List<T> ts) {
+        try {
+            return service.create(ts);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the list of all <code>T</code> objects.
+     *
+     * @return
+     */
+    @Override
+    public List<T> getAll() {
+        return service.getAll();
+    }
+
+    /**
+     * Returns the <code>T</code> object by <code>id</code>.
+     *
+     * @param id
+     * @return
+     */
+    @Override
+    public T getById(ID id) {
+        return service.getById(id);
+    }
+
+    /**
+     * Returns the frozen <code>filter</code>, or <code>null</code> if it can't be frozen because it doesn't expose
+     * its keys.
+     *
+     * @param filter
+     * @return
+     */
+    private static <T> CompiledFilter<T> freeze(Filter<T> filter) {
+        if (BeanUtils.isNull(filter)) {
+            return null;
+        }
+
+        try {
+            return filter.freeze();
+        } catch (UnsupportedOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the (cached) list of <code>T</code> objects matching the <code>filter</code>. The filters which can't
+     * be frozen are delegated without caching.
+     *
+     * @param filter
+     * @return
+     */
+    @Override
+    public List<T> getByFilter(Filter<T> filter) {
+        final CompiledFilter<T> compiledFilter = freeze(filter);
+        if (BeanUtils.isNull(compiledFilter)) {
+            return service.getByFilter(filter);
+        }
+
+        return getOrLoad(new CacheKey(compiledFilter, null), () -> {
+            final List<T> result = service.getByFilter(compiledFilter);
+            return (BeanUtils.isNull(result) ? null : Collections.unmodifiableList(result));
+        });
+    }
+
+    /**
+     * Returns the (cached) pageable <code>T</code> object by <code>pageable</code> filter. The filters which can't be
+     * frozen are delegated without caching.
+     *
+     * @param filter
+     * @param pageable
+     * @return
+     */
+    @Override
+    public Page<T> getByFilter(Filter<T> filter, Pageable pageable) {
+        final CompiledFilter<T> compiledFilter = freeze(filter);
+        if (BeanUtils.isNull(compiledFilter)) {
+            return service.getByFilter(filter, pageable);
+        }
+
+        return getOrLoad(new CacheKey(compiledFilter, pageable), () -> service.getByFilter(compiledFilter, pageable));
+    }
+
+    /**
+     * Returns all the objects of the service page by page, without caching the pages.
+     *
+     * @param pageable
+     * @return
+     */
+    @Override
+    public Iterable<T> getAllInPages(Pageable pageable) {
+        return service.getAllInPages(pageable);
+    }
+
+    /**
+     * Updates the <code>T</code> object.
+     *
+     * @param t
+     * @return
+     */
+    @Override
+    public T update(T t) {
+        try {
+            return service.update(t);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Updates the <code>List<T></code> objects.
+     *
+     * @param ts
+     * @return
+     */
+    @Override
+    public List<T> update(List<T> ts) {
+        try {
+            return service.update(ts);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Deletes the object by <code>id</code>.
+     *
+     * @param id
+     * @return
+     */
+    @Override
+    public T delete(ID id) {
+        try {
+            return service.delete(id);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * The key of the cached results, the frozen filter and the (optional) <code>Pageable</code>.
+     */
+    private static final class CacheKey {
+
+        private final CompiledFilter<?> filter;
+        private final Pageable pageable;
+        private final int hashCode;
+
+        /**
+         * @param filter
+         * @param pageable
+         */
+        CacheKey(CompiledFilter<?> filter, Pageable pageable) {
+            this.filter = filter;
+            this.pageable = pageable;
+            this.hashCode = Objects.hash(filter, pageable);
+        }
+
+        /**
+         * @param object
+         * @return
+         */
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            } else if (!(object instanceof CacheKey)) {
+                return false;
+            }
+
+            final CacheKey other = (CacheKey) object;
+            return (hashCode == other.hashCode && filter.equals(other.filter)
+                    && Objects.equals(pageable, other.pageable));
+        }
+
+        /**
+         * @return
+         */
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.rslakra.appsuite.spring.service;
+
+import com.rslakra.appsuite.core.ToString;
+
+/**
+ * The checkpoint of an import job: the number of the source records committed by the job, the number of the objects
+ * it created and whether it completed.
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 6:10 PM
+ */
+public final class ImportCheckpoint {
+
+    // the checkpoint of the jobs which didn't commit any batch yet
+    public static final ImportCheckpoint NONE = new ImportCheckpoint(0, 0, false);
+
+    private final long recordNumber;
+    private final long createdCount;
+    private final boolean completed;
+
+    /**
+     * @param recordNumber
+     * @param createdCount
+     * @param completed
+     */
+    public ImportCheckpoint(long recordNumber, long createdCount, boolean completed) {
+        this.recordNumber = recordNumber;
+        this.createdCount = createdCount;
+        this.completed = completed;
+    }
+
+    /**
+     * Returns the number of the source records committed by the job.
+     *
+     * @return
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Returns the number of the objects created by the job.
+     *
+     * @return
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Returns true if the job imported all the records of its source.
+     *
+     * @return
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return ToString.of(ImportCheckpoint.class)
+            .add("recordNumber", recordNumber)
+            .add("createdCount", createdCount)
+            .add("completed", completed)
+            .toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.rslakra.appsuite.spring.service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The store of the checkpoints of the import jobs. The checkpoint of a job is the number of the source records
+ * committed by the job, so a failed (or interrupted) job resumes after them instead of from the start. The completed
+ * jobs keep their checkpoint, so retrying a completed job returns its count instead of importing it again.
+ * <p>
+ * The jobs are identified by their <code>jobScope</code> (like the controller importing the entities) and their
+ * <code>jobId</code>, so the same <code>jobId</code> of the different entities doesn't collide.
+ * </p>
+ * <p>
+ * The checkpoint must be saved in the same transaction as the batch it covers, so a crash never leaves a created
+ * batch without its checkpoint (which would create it again on resume), like the
+ * <code>JdbcImportCheckpointStore</code> keeping them in the database of the entities.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 8:50 PM
+ */
+public interface ImportCheckpointStore {
+
+    /**
+     * Returns the checkpoint of the job, or <code>ImportCheckpoint.NONE</code> if it has no checkpoint.
+     *
+     * @param jobScope
+     * @param jobId
+     * @return
+     */
+    public ImportCheckpoint getCheckpoint(String jobScope, String jobId);
+
+    /**
+     * Runs the <code>batch</code> (which creates the records after the <code>fromRecord</code> up to the
+     * <code>toRecord</code>) and advances the checkpoint of the job from the <code>fromRecord</code> to the
+     * <code>toRecord</code> (adding the created objects to its count) in one transaction, so both are committed or
+     * neither.
+     *
+     * @param jobScope
+     * @param jobId
+     * @param fromRecord
+     * @param toRecord
+     * @param batch
+     * @param <R>
+     * @return the objects created by the <code>batch</code>
+     * @throws IllegalStateException if the checkpoint isn't at the <code>fromRecord</code>, because another run of
+     *                               the job advanced (or completed) it; the batch is rolled back
+     */
+    public <R> List<R> commitBatch(String jobScope, String jobId, long fromRecord, long toRecord,
+                                   Supplier<List<R>> batch);
+
+    /**
+     * Marks the job, which committed the <code>recordNumber</code> records (all the records of its source), as
+     * completed.
+     *
+     * @param jobScope
+     * @param jobId
+     * @param recordNumber
+     * @throws IllegalStateException if the checkpoint isn't at the <code>recordNumber</code>, because another run of
+     *                               the job advanced (or completed) it
+     */
+    public void completeCheckpoint(String jobScope, String jobId, long recordNumber);
+
+    /**
+     * Removes the checkpoint of the job, like the completed jobs after their retention period. The job imports its
+     * source again from the start.
+     *
+     * @param jobScope
+     * @param jobId
+     */
+    public void removeCheckpoint(String jobScope, String jobId);
+}
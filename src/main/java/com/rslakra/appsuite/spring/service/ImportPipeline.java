@@ -0,0 +1,460 @@
+package com.rslakra.appsuite.spring.service;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.persistence.ServiceOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Imports the parsed <code>T</code> objects through the <code>parse</code> stage and the <code>validate</code> and
+ * <code>create</code> stages, connected by the bounded queue of the batches.
+ * <p>
+ * A thread of the shared pool of the parsers pulls the source into the batches of <code>batchSize</code> objects,
+ * while the caller thread validates each object of a batch with <code>AbstractService.validate</code> and creates the
+ * batch with <code>AbstractService.create</code>, so parsing the next batch overlaps inserting the previous one. The
+ * services run on the caller thread, with its security context (which audits the created objects) and transaction.
+ * At most <code>queueCapacity</code> batches wait between the stages, so the memory is bounded regardless of the size
+ * of the file.
+ * </p>
+ * <p>
+ * Each batch is created separately, so the batches created before a failure stay created. The first failure of any
+ * stage stops the others and is rethrown.
+ * </p>
+ * <p>
+ * The imports with a job id are checkpointed: each batch is created in the same transaction of the
+ * <code>ImportCheckpointStore</code> which saves the number of the source records the batch ends at, so a crash
+ * commits both or neither. Importing the same source with the same job id again skips the records already
+ * committed, so a failed import resumes without creating any batch twice. A job runs once at a time: the concurrent
+ * runs of a job fail, either here or (in the other instances) when the store finds its checkpoint advanced. The
+ * checkpoint is marked completed when the import completes, so retrying a completed job (like after a lost response)
+ * returns its count without importing again. The job ids are scoped by the <code>jobScope</code> of the pipeline.
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 5:40 PM
+ */
+public class ImportPipeline<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportPipeline.class);
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_QUEUE_CAPACITY = 2;
+    // how often the blocked stages check for the failure of the other stages
+    private static final long POLL_MILLIS = 100;
+    // the parsers of all the imports, the idle threads end
+    private static final ThreadPoolExecutor PARSE_EXECUTOR = newParseExecutor();
+    // the scopes and the ids of the jobs being imported by this instance
+    private static final Set<List<String>> RUNNING_JOBS = ConcurrentHashMap.newKeySet();
+
+    private final AbstractService<T, ?> service;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final ImportCheckpointStore checkpointStore;
+    private final String jobScope;
+
+    /**
+     * The <code>jobScope</code> (like the controller importing the entities) scopes the job ids of the
+     * <code>checkpointStore</code>.
+     *
+     * @param service
+     * @param batchSize
+     * @param queueCapacity
+     * @param checkpointStore
+     * @param jobScope
+     */
+    public ImportPipeline(AbstractService<T, ?> service, int batchSize, int queueCapacity,
+                          ImportCheckpointStore checkpointStore, String jobScope) {
+        BeanUtils.assertNonNull(service, "service should not be null!");
+        if (batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("The batchSize and queueCapacity should be positive!");
+        } else if (BeanUtils.isNotNull(checkpointStore) && BeanUtils.isNull(jobScope)) {
+            throw new IllegalArgumentException("The jobScope is required with the checkpointStore!");
+        }
+
+        this.service = service;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.checkpointStore = checkpointStore;
+        this.jobScope = jobScope;
+    }
+
+    /**
+     * @param service
+     * @param batchSize
+     * @param queueCapacity
+     */
+    public ImportPipeline(AbstractService<T, ?> service, int batchSize, int queueCapacity) {
+        this(service, batchSize, queueCapacity, null, null);
+    }
+
+    /**
+     * @param service
+     * @param batchSize
+     */
+    public ImportPipeline(AbstractService<T, ?> service, int batchSize) {
+        this(service, batchSize, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param service
+     */
+    public ImportPipeline(AbstractService<T, ?> service) {
+        this(service, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Returns the bounded pool of the daemon threads parsing the sources of the imports.
+     *
+     * @return
+     */
+    private static ThreadPoolExecutor newParseExecutor() {
+        final int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                                                                   new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "import-parser-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the batch size.
+     *
+     * @return
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Imports the objects of the <code>source</code> stream and closes it. Returns the number of the created
+     * objects.
+     *
+     * @param source
+     * @return
+     */
+    public long importAll(Stream<T> source) {
+        return importAll(source, null);
+    }
+
+    /**
+     * Imports the objects of the <code>source</code>. Returns the number of the created objects.
+     *
+     * @param source
+     * @return
+     */
+    public long importAll(Iterator<T> source) {
+        return importAll(source, null);
+    }
+
+    /**
+     * Imports the objects of the <code>source</code> stream as the <code>jobId</code> job and closes it. Returns the
+     * number of the objects created by the job.
+     *
+     * @param source
+     * @param jobId
+     * @return
+     */
+    public long importAll(Stream<T> source, String jobId) {
+        return importAll(source, jobId, new AtomicLong());
+    }
+
+    /**
+     * Imports the objects of the <code>source</code> stream as the <code>jobId</code> job and closes it, counting the
+     * objects created by the job in the <code>createdCount</code>. Returns the number of the objects created by the
+     * job.
+     *
+     * @param source
+     * @param jobId
+     * @param createdCount
+     * @return
+     */
+    public long importAll(Stream<T> source, String jobId, AtomicLong createdCount) {
+        try (Stream<T> tStream = source) {
+            return importAll(tStream.iterator(), jobId, createdCount);
+        }
+    }
+
+    /**
+     * Imports the objects of the <code>source</code> as the <code>jobId</code> job, resuming after the records
+     * committed by its previous runs. The completed job isn't imported again. The <code>null</code>
+     * <code>jobId</code> isn't checkpointed. Returns the number of the objects created by the job, in all its runs.
+     *
+     * @param source
+     * @param jobId
+     * @return
+     */
+    public long importAll(Iterator<T> source, String jobId) {
+        return importAll(source, jobId, new AtomicLong());
+    }
+
+    /**
+     * Imports the objects of the <code>source</code> as the <code>jobId</code> job, like
+     * <code>importAll(source, jobId)</code>. The <code>createdCount</code> is advanced as each batch is committed, so
+     * it holds the number of the objects created by the job even if the import fails.
+     *
+     * @param source
+     * @param jobId
+     * @param createdCount
+     * @return
+     */
+    public long importAll(Iterator<T> source, String jobId, AtomicLong createdCount) {
+        BeanUtils.assertNonNull(createdCount, "createdCount should not be null!");
+        if (BeanUtils.isNull(jobId)) {
+            return new Run(source, null, createdCount).execute();
+        } else if (BeanUtils.isNull(checkpointStore)) {
+            throw new IllegalStateException("The checkpointStore is required to import the job:" + jobId);
+        }
+
+        final List<String> runningJob = List.of(jobScope, jobId);
+        if (!RUNNING_JOBS.add(runningJob)) {
+            throw new IllegalStateException("The job:" + jobId + " is already running!");
+        }
+
+        try {
+            return new Run(source, jobId, createdCount).execute();
+        } finally {
+            RUNNING_JOBS.remove(runningJob);
+        }
+    }
+
+    /**
+     * Validates the objects of the batch for the <code>CREATE</code> operation.
+     *
+     * @param batch
+     * @return
+     */
+    protected List<T> validate(List<T> batch) {
+        final List<T> validBatch = new ArrayList<>(batch.size());
+        for (T t : batch) {
+            validBatch.add(service.validate(ServiceOperation.CREATE, t));
+        }
+
+        return validBatch;
+    }
+
+    /**
+     * A single execution of the pipeline.
+     */
+    private final class Run {
+
+        // marks the end of the batches, compared by identity
+        private final List<T> end = new ArrayList<>(0);
+        private final Iterator<T> source;
+        private final String jobId;
+        // the record numbers at the ends of the batches in the stages, in order
+        private final Queue<Long> batchEnds = new ConcurrentLinkedQueue<>();
+        private final BlockingQueue<List<T>> parsedBatches = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final AtomicLong created;
+        private final CountDownLatch parsed = new CountDownLatch(1);
+        // the number of the source records committed, by the previous runs and this one
+        private long committed;
+
+        /**
+         * @param source
+         * @param jobId
+         * @param created
+         */
+        Run(Iterator<T> source, String jobId, AtomicLong created) {
+            this.source = source;
+            this.jobId = jobId;
+            this.created = created;
+        }
+
+        /**
+         * Creates the <code>batch</code>, in the same transaction as the checkpoint of the job at its end.
+         *
+         * @param batch
+         * @return
+         */
+        private List<T> create(List<T> batch) {
+            final long batchEnd = batchEnds.remove();
+            final List<T> createdBatch;
+            if (BeanUtils.isNull(jobId)) {
+                createdBatch = service.create(batch);
+            } else {
+                createdBatch = checkpointStore.commitBatch(jobScope, jobId, committed, batchEnd,
+                                                           () -> service.create(batch));
+            }
+
+            committed = batchEnd;
+            created.addAndGet(BeanUtils.isNull(createdBatch) ? 0 : createdBatch.size());
+            return createdBatch;
+        }
+
+        /**
+         * Runs the stages and returns the number of the objects created by the job.
+         *
+         * @return
+         */
+        long execute() {
+            final ImportCheckpoint checkpoint;
+            if (BeanUtils.isNull(jobId)) {
+                checkpoint = ImportCheckpoint.NONE;
+            } else {
+                checkpoint = checkpointStore.getCheckpoint(jobScope, jobId);
+            }
+            if (checkpoint.isCompleted()) {
+                LOGGER.info("The job:{} is already completed, created: {}", jobId, checkpoint.getCreatedCount());
+                created.set(checkpoint.getCreatedCount());
+                return checkpoint.getCreatedCount();
+            }
+
+            committed = checkpoint.getRecordNumber();
+            created.set(checkpoint.getCreatedCount());
+            final FutureTask<Void> parseStage = new FutureTask<>(() -> parse(checkpoint.getRecordNumber()));
+            PARSE_EXECUTOR.execute(parseStage);
+            try {
+                createAll();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, ex);
+            } finally {
+                awaitParse(parseStage);
+            }
+
+            final Throwable cause = failure.get();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else if (BeanUtils.isNotNull(cause)) {
+                throw new RuntimeException(cause);
+            }
+
+            if (BeanUtils.isNotNull(jobId)) {
+                checkpointStore.completeCheckpoint(jobScope, jobId, committed);
+            }
+
+            LOGGER.debug("execute(), jobId: {}, created: {}", jobId, created.get());
+            return created.get();
+        }
+
+        /**
+         * Waits for the <code>parseStage</code> to stop using the source, unless it didn't start yet.
+         *
+         * @param parseStage
+         */
+        private void awaitParse(FutureTask<Void> parseStage) {
+            if (PARSE_EXECUTOR.remove(parseStage)) {
+                return;
+            }
+
+            // wakes up the parser blocked on the full queue after a failure
+            parseStage.cancel(true);
+            boolean interrupted = false;
+            while (parsed.getCount() > 0) {
+                try {
+                    parsed.await();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Pulls the source into the batches, in the thread of the parsers. The records committed by the previous
+         * runs of the job (up to the <code>checkpoint</code>) are skipped.
+         *
+         * @param checkpoint
+         * @return
+         * @throws InterruptedException
+         */
+        private Void parse(long checkpoint) throws InterruptedException {
+            try {
+                long recordNumber = 0;
+                while (recordNumber < checkpoint && BeanUtils.isNull(failure.get()) && source.hasNext()) {
+                    source.next();
+                    recordNumber++;
+                }
+                if (checkpoint > 0) {
+                    LOGGER.info("Resuming the job:{} after {} records", jobId, recordNumber);
+                }
+
+                List<T> batch = new ArrayList<>(batchSize);
+                while (BeanUtils.isNull(failure.get()) && source.hasNext()) {
+                    batch.add(source.next());
+                    recordNumber++;
+                    if (batch.size() == batchSize) {
+                        batchEnds.add(recordNumber);
+                        transfer(parsedBatches, batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    batchEnds.add(recordNumber);
+                    transfer(parsedBatches, batch);
+                }
+                transfer(parsedBatches, end);
+            } catch (RuntimeException | Error ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                parsed.countDown();
+            }
+
+            return null;
+        }
+
+        /**
+         * Validates and creates the parsed batches in the caller thread, until the end or a failure.
+         *
+         * @throws InterruptedException
+         */
+        private void createAll() throws InterruptedException {
+            try {
+                while (BeanUtils.isNull(failure.get())) {
+                    final List<T> batch = parsedBatches.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (batch == end) {
+                        break;
+                    } else if (BeanUtils.isNotNull(batch)) {
+                        create(validate(batch));
+                    }
+                }
+            } catch (RuntimeException | Error ex) {
+                failure.compareAndSet(null, ex);
+            }
+        }
+
+        /**
+         * Puts the <code>batch</code> on the <code>queue</code>, unless any stage fails while the queue is full.
+         *
+         * @param queue
+         * @param batch
+         * @throws InterruptedException
+         */
+        private void transfer(BlockingQueue<List<T>> queue, List<T> batch) throws InterruptedException {
+            while (BeanUtils.isNull(failure.get())) {
+                if (queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+    }
+}
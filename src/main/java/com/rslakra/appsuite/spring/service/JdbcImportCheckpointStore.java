@@ -0,0 +1,195 @@
+package com.rslakra.appsuite.spring.service;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.core.ToString;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * The <code>ImportCheckpointStore</code> keeping the checkpoints in a table of the database of the entities, so they
+ * survive the restarts and the redeploys of the application and are shared by its instances:
+ * <pre>
+ * CREATE TABLE import_checkpoints (
+ *     job_scope VARCHAR(255) NOT NULL,
+ *     job_id VARCHAR(128) NOT NULL,
+ *     record_number BIGINT NOT NULL,
+ *     created_count BIGINT NOT NULL,
+ *     completed BOOLEAN NOT NULL,
+ *     PRIMARY KEY (job_scope, job_id)
+ * );
+ * </pre>
+ * <p>
+ * Each batch is created and its checkpoint is saved in one transaction of the <code>transactionManager</code>, which
+ * the service creating the batch must join (the default propagation of <code>@Transactional</code>, on the same
+ * <code>DataSource</code>). The checkpoint is advanced only from the record number the run started the batch at, so
+ * the concurrent runs of the same job (in any instance) fail and roll back their batch instead of creating the same
+ * records twice. The rows of the completed jobs are kept until removed (like by a scheduled purge).
+ * </p>
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 1:10 PM
+ */
+public class JdbcImportCheckpointStore implements ImportCheckpointStore {
+
+    public static final String DEFAULT_TABLE_NAME = "import_checkpoints";
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+    private static final int MAX_JOB_SCOPE_LENGTH = 255;
+    private static final int MAX_JOB_ID_LENGTH = 128;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final String tableName;
+
+    /**
+     * @param jdbcTemplate
+     * @param transactionOperations
+     * @param tableName
+     */
+    public JdbcImportCheckpointStore(JdbcTemplate jdbcTemplate, TransactionOperations transactionOperations,
+                                     String tableName) {
+        BeanUtils.assertNonNull(jdbcTemplate, "jdbcTemplate should not be null!");
+        BeanUtils.assertNonNull(transactionOperations, "transactionOperations should not be null!");
+        if (BeanUtils.isNull(tableName) || !TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+            throw new IllegalArgumentException("Invalid tableName:" + tableName);
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.tableName = tableName;
+    }
+
+    /**
+     * @param dataSource
+     * @param transactionManager
+     */
+    public JdbcImportCheckpointStore(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), DEFAULT_TABLE_NAME);
+    }
+
+    /**
+     * Checks the <code>jobScope</code> and the <code>jobId</code> fit the columns.
+     *
+     * @param jobScope
+     * @param jobId
+     */
+    private static void checkJob(String jobScope, String jobId) {
+        if (BeanUtils.isNull(jobScope) || jobScope.isEmpty() || jobScope.length() > MAX_JOB_SCOPE_LENGTH) {
+            throw new IllegalArgumentException("Invalid jobScope:" + jobScope);
+        } else if (BeanUtils.isNull(jobId) || jobId.isEmpty() || jobId.length() > MAX_JOB_ID_LENGTH) {
+            throw new IllegalArgumentException("Invalid jobId:" + jobId);
+        }
+    }
+
+    /**
+     * @param jobScope
+     * @param jobId
+     * @return
+     */
+    @Override
+    public ImportCheckpoint getCheckpoint(String jobScope, String jobId) {
+        checkJob(jobScope, jobId);
+        final List<ImportCheckpoint> checkpoints = jdbcTemplate.query(
+            "SELECT record_number, created_count, completed FROM " + tableName + " WHERE job_scope = ? AND job_id = ?",
+            (resultSet, rowNumber) -> new ImportCheckpoint(resultSet.getLong(1), resultSet.getLong(2),
+                                                           resultSet.getBoolean(3)), jobScope, jobId);
+        return (checkpoints.isEmpty() ? ImportCheckpoint.NONE : checkpoints.get(0));
+    }
+
+    /**
+     * Inserts the checkpoint of the job starting at the record 0, or advances it from the <code>fromRecord</code>
+     * (unless completed). Returns the number of the updated rows.
+     *
+     * @param jobScope
+     * @param jobId
+     * @param fromRecord
+     * @param toRecord
+     * @param created
+     * @param completed
+     * @return
+     */
+    private int saveCheckpoint(String jobScope, String jobId, long fromRecord, long toRecord, long created,
+                               boolean completed) {
+        try {
+            if (fromRecord == 0) {
+                return jdbcTemplate.update("INSERT INTO " + tableName
+                                           + " (job_scope, job_id, record_number, created_count, completed)"
+                                           + " VALUES (?, ?, ?, ?, ?)", jobScope, jobId, toRecord, created, completed);
+            }
+
+            return jdbcTemplate.update("UPDATE " + tableName
+                                       + " SET record_number = ?, created_count = created_count + ?, completed = ?"
+                                       + " WHERE job_scope = ? AND job_id = ? AND record_number = ? AND completed = ?",
+                                       toRecord, created, completed, jobScope, jobId, fromRecord, false);
+        } catch (DuplicateKeyException ex) {
+            throw new IllegalStateException("The job:" + jobId + " is imported concurrently!", ex);
+        }
+    }
+
+    /**
+     * @param jobScope
+     * @param jobId
+     * @param fromRecord
+     * @param toRecord
+     * @param batch
+     * @param <R>
+     * @return
+     */
+    @Override
+    public <R> List<R> commitBatch(String jobScope, String jobId, long fromRecord, long toRecord,
+                                   Supplier<List<R>> batch) {
+        checkJob(jobScope, jobId);
+        return transactionOperations.execute(status -> {
+            final List<R> result = batch.get();
+            final long created = (BeanUtils.isNull(result) ? 0 : result.size());
+            // the exception rolls back the batch
+            if (saveCheckpoint(jobScope, jobId, fromRecord, toRecord, created, false) != 1) {
+                throw new IllegalStateException("The job:" + jobId + " is imported concurrently!");
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * @param jobScope
+     * @param jobId
+     * @param recordNumber
+     */
+    @Override
+    public void completeCheckpoint(String jobScope, String jobId, long recordNumber) {
+        checkJob(jobScope, jobId);
+        if (saveCheckpoint(jobScope, jobId, recordNumber, recordNumber, 0, true) != 1) {
+            throw new IllegalStateException("The job:" + jobId + " is imported concurrently!");
+        }
+    }
+
+    /**
+     * @param jobScope
+     * @param jobId
+     */
+    @Override
+    public void removeCheckpoint(String jobScope, String jobId) {
+        checkJob(jobScope, jobId);
+        jdbcTemplate.update("DELETE FROM " + tableName + " WHERE job_scope = ? AND job_id = ?", jobScope, jobId);
+    }
+
+    /**
+     * Returns the string representation of this object.
+     *
+     * @return
+     */
+    @Override
+    public String toString() {
+        return ToString.of(JdbcImportCheckpointStore.class)
+            .add("tableName", tableName)
+            .toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.rslakra.appsuite.spring.service;
+
+import com.rslakra.appsuite.core.BeanUtils;
+import com.rslakra.appsuite.spring.filter.Filter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the objects of the <code>filter</code>, fetching the next page from the service only when the objects of
+ * the previous page are consumed, so only a page of the objects is in the memory at a time.
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 11:20 AM
+ */
+final class PagedIterator<T> implements Iterator<T> {
+
+    private final AbstractService<T, ?> service;
+    private final Filter<T> filter;
+    // the next page to fetch, or null after the last page
+    private Pageable pageable;
+    private Iterator<T> pageIterator = Collections.emptyIterator();
+
+    /**
+     * @param service
+     * @param filter
+     * @param pageable
+     */
+    PagedIterator(AbstractService<T, ?> service, Filter<T> filter, Pageable pageable) {
+        BeanUtils.assertNonNull(service, "service should not be null!");
+        BeanUtils.assertNonNull(pageable, "pageable should not be null!");
+        this.service = service;
+        this.filter = filter;
+        this.pageable = pageable;
+    }
+
+    /**
+     * @return
+     */
+    @Override
+    public boolean hasNext() {
+        while (!pageIterator.hasNext() && BeanUtils.isNotNull(pageable)) {
+            final Page<T> page = service.getByFilter(filter, pageable);
+            if (BeanUtils.isNull(page)) {
+                pageable = null;
+            } else {
+                pageable = (page.hasNext() ? page.nextPageable() : null);
+                pageIterator = page.iterator();
+            }
+        }
+
+        return pageIterator.hasNext();
+    }
+
+    /**
+     * @return
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return pageIterator.next();
+    }
+}
@@ -13,7 +13,13 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -247,6 +253,160 @@ public class AbstractFilterTest {
         assertNull(filter.getValue("nonExistent", Integer.class));
     }
 
+    /**
+     * Tests applyAll returns the indexes of the matching elements.
+     */
+    @Test
+    public void testApplyAll() {
+        Payload<String, Object> payload = Payload.newBuilder();
+        payload.ofPair("active", true);
+        payload.ofPair("age", 30);
+        DefaultFilter<TestUser> filter = new DefaultFilter<>(payload);
+
+        List<TestUser> users = Arrays.asList(
+            new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true),
+            new TestUser(2L, "Roh Lak", "rslakra@lakra.com", 31, true),
+            null,
+            new TestUser(4L, "Roh Lak", "rslakra@lakra.com", 30, false),
+            new TestUser(5L, "Roh Lak", "rslakra@lakra.com", 30, true));
+
+        BitSet matches = filter.applyAll(users);
+        assertEquals(2, matches.cardinality());
+        assertTrue(matches.get(0));
+        assertTrue(matches.get(4));
+
+        // non-random-access lists
+        assertEquals(matches, filter.applyAll(new LinkedList<>(users)));
+        assertTrue(filter.applyAll(new ArrayList<>()).isEmpty());
+    }
+
+    /**
+     * Tests applyAll on lists evaluated on the fork-join pool.
+     */
+    @Test
+    public void testApplyAllWithLargeList() {
+        Payload<String, Object> payload = Payload.newBuilder();
+        payload.ofPair("age", 7);
+        DefaultFilter<TestUser> filter = new DefaultFilter<>(payload);
+
+        List<TestUser> users = new ArrayList<>();
+        int expected = 0;
+        for (int index = 0; index < AbstractFilter.PARALLEL_THRESHOLD * 4; index++) {
+            users.add(new TestUser((long) index, "User " + index, index + "@lakra.com", index % 10, true));
+            if (index % 10 == 7) {
+                expected++;
+            }
+        }
+
+        BitSet matches = filter.applyAll(users);
+        assertEquals(expected, matches.cardinality());
+        for (int index = matches.nextSetBit(0); index >= 0; index = matches.nextSetBit(index + 1)) {
+            assertTrue(filter.apply(users.get(index)));
+        }
+    }
+
+    /**
+     * Tests the most selective criterion is moved first.
+     */
+    @Test
+    public void testCriteriaReorderedBySelectivity() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("active", true);
+        params.put("email", "user7@lakra.com");
+        DefaultFilter<TestUser> filter = new DefaultFilter<>(params);
+
+        List<TestUser> users = new ArrayList<>();
+        for (int index = 0; index < AbstractFilter.REORDER_INTERVAL * 2; index++) {
+            users.add(new TestUser((long) index, "User " + index, "user" + index + "@lakra.com", 30, true));
+        }
+
+        // the bulk evaluation records the statistics
+        assertEquals(1, filter.applyAll(users).cardinality());
+        assertEquals("email", filter.getCriteria()[0].getKey());
+
+        // the sampled apply calls record the statistics too
+        DefaultFilter<TestUser> sampledFilter = new DefaultFilter<>(params);
+        int matches = 0;
+        for (int round = 0; round < AbstractFilter.SAMPLE_INTERVAL; round++) {
+            for (TestUser user : users) {
+                if (sampledFilter.apply(user)) {
+                    matches++;
+                }
+            }
+        }
+
+        assertEquals(AbstractFilter.SAMPLE_INTERVAL, matches);
+        assertEquals("email", sampledFilter.getCriteria()[0].getKey());
+    }
+
+    /**
+     * Tests the criteria of the snapshots keep their order and statistics.
+     */
+    @Test
+    public void testCompiledFilterIsNotReordered() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("active", true);
+        params.put("email", "user7@lakra.com");
+        CompiledFilter<TestUser> filter = new CompiledFilter<>(params);
+
+        List<TestUser> users = new ArrayList<>();
+        for (int index = 0; index < AbstractFilter.REORDER_INTERVAL * 2; index++) {
+            users.add(new TestUser((long) index, "User " + index, "user" + index + "@lakra.com", 30, true));
+        }
+
+        assertEquals(1, filter.applyAll(users).cardinality());
+        assertEquals("active", filter.getCriteria()[0].getKey());
+        // no statistics recorded
+        assertEquals(0.5d, filter.getCriteria()[1].getRank());
+    }
+
+    /**
+     * Tests the comparison operators of the filter keys.
+     */
+    @Test
+    public void testApplyWithOperators() {
+        TestUser user = new TestUser(5L, "Roh Lak", "rslakra@lakra.com", 30, true);
+        TestUser noEmail = new TestUser(6L, "Roh Lak", null, 30, true);
+
+        assertTrue(new DefaultFilter<TestUser>(Map.of("age:gt", 29)).apply(user));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("age:gt", "30")).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("age:ge", "30")).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("age:lt", "31")).apply(user));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("age:le", 29)).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("id:between", "1,5")).apply(user));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("id:between", Arrays.asList(6L, 9L))).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("id:in", "1,3,5")).apply(user));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("id:in", new Long[]{1L, 3L})).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("email:prefix", "rslakra@")).apply(user));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("email:prefix", "lakra")).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("email:like", "%@lakra.___")).apply(user));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("email:like", "%@lakra.co")).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("email:isNull", true)).apply(noEmail));
+        assertFalse(new DefaultFilter<TestUser>(Map.of("email:isNull", "true")).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("email:isNull", false)).apply(user));
+        assertTrue(new DefaultFilter<TestUser>(Map.of("name:ne", "Other")).apply(user));
+        // null values never satisfy the ranges
+        assertFalse(new DefaultFilter<TestUser>(Map.of("email:lt", "z")).apply(noEmail));
+        // the operators on the missing properties are a mismatch
+        assertFalse(new DefaultFilter<TestUser>(Map.of("nonExistent:isNull", true)).apply(user));
+    }
+
+    /**
+     * Tests the operator suffixes of the filter keys.
+     */
+    @Test
+    public void testOperatorKeys() {
+        assertEquals(Operator.GT, Operator.of("age:gt"));
+        assertEquals("age", Operator.propertyOf("age:gt"));
+        assertEquals(Operator.EQ, Operator.of("age"));
+        assertEquals("time:zone", Operator.propertyOf("time:zone"));
+        assertEquals("age:between", Operator.BETWEEN.keyOf("age"));
+        assertEquals("age", Operator.EQ.keyOf("age"));
+        assertTrue(FilterUtils.like("rslakra@lakra.com", "rs%@%.com"));
+        assertTrue(FilterUtils.like("abc", "%"));
+        assertFalse(FilterUtils.like("abc", "a_"));
+    }
+
     /**
      * Creates payload for TestUser.
      */
@@ -0,0 +1,99 @@
+package com.rslakra.appsuite.spring.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rslakra.appsuite.core.Payload;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for the immutable <code>CompiledFilter</code> snapshots.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 12:10 PM
+ */
+public class CompiledFilterTest {
+
+    /**
+     * Tests the snapshots are equal regardless of the order of the criteria.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("email", "rslakra@lakra.com");
+        first.put("active", true);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("active", true);
+        second.put("email", "rslakra@lakra.com");
+
+        CompiledFilter<TestUser> firstFilter = new DefaultFilter<TestUser>(first).freeze();
+        CompiledFilter<TestUser> secondFilter = new DefaultFilter<TestUser>(second).freeze();
+        assertEquals(firstFilter, secondFilter);
+        assertEquals(firstFilter.hashCode(), secondFilter.hashCode());
+
+        second.put("active", false);
+        assertNotEquals(firstFilter, new CompiledFilter<TestUser>(second));
+
+        // usable as cache keys
+        Map<Filter<TestUser>, String> cache = new HashMap<>();
+        cache.put(firstFilter, "cached");
+        assertEquals("cached", cache.get(secondFilter));
+    }
+
+    /**
+     * Tests the snapshots are immutable and independent of the source filter.
+     */
+    @Test
+    public void testSnapshotIsImmutable() {
+        Payload<String, Object> payload = Payload.newBuilder();
+        payload.ofPair("id", 1L);
+        DefaultFilter<TestUser> filter = new DefaultFilter<>(payload);
+        CompiledFilter<TestUser> compiledFilter = filter.freeze();
+        assertSame(compiledFilter, compiledFilter.freeze());
+        assertThrows(UnsupportedOperationException.class, () -> compiledFilter.rebuild(new HashMap<>()));
+        assertThrows(UnsupportedOperationException.class, () -> compiledFilter.getKeys().add("name"));
+
+        TestUser user = new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true);
+        filter.rebuild(Payload.newBuilder().ofPair("id", 2L));
+        assertFalse(filter.apply(user));
+        assertTrue(compiledFilter.apply(user));
+        assertEquals(1L, compiledFilter.getValue("id"));
+    }
+
+    /**
+     * Tests changing the array and collection values of the source filter doesn't change the snapshot.
+     */
+    @Test
+    public void testSnapshotCopiesValues() {
+        Long[] ids = {1L, 2L};
+        List<String> names = new ArrayList<>(List.of("Roh Lak"));
+        Map<String, Object> allParams = new HashMap<>();
+        allParams.put("id", ids);
+        allParams.put("name", names);
+
+        CompiledFilter<TestUser> compiledFilter = new DefaultFilter<TestUser>(allParams).freeze();
+        CompiledFilter<TestUser> expected = new DefaultFilter<TestUser>(new HashMap<>(Map.of(
+            "id", new Long[]{1L, 2L}, "name", List.of("Roh Lak")))).freeze();
+        Map<CompiledFilter<TestUser>, String> cache = new HashMap<>();
+        cache.put(compiledFilter, "cached");
+        final int hashCode = compiledFilter.hashCode();
+
+        ids[0] = 3L;
+        names.add("Lak Roh");
+        assertEquals(hashCode, compiledFilter.hashCode());
+        assertEquals(expected, compiledFilter);
+        assertEquals("cached", cache.get(expected));
+        assertThrows(UnsupportedOperationException.class,
+                     () -> ((List<?>) compiledFilter.getValue("name")).clear());
+    }
+}
@@ -0,0 +1,139 @@
+package com.rslakra.appsuite.spring.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rslakra.appsuite.core.Payload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for the <code>IndexedCollection</code> answering the filters from its indexes.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 3:20 PM
+ */
+public class IndexedCollectionTest {
+
+    private List<TestUser> users;
+    private IndexedCollection<TestUser> indexedUsers;
+
+    @BeforeEach
+    public void setUp() {
+        users = new ArrayList<>();
+        for (int index = 0; index < 1000; index++) {
+            users.add(new TestUser((long) index, "User " + (index % 7), "user" + index + "@lakra.com", index % 50,
+                                   index % 3 == 0));
+        }
+        users.add(new TestUser(1000L, null, null, null, null));
+        indexedUsers = new IndexedCollection<>(users, Arrays.asList("email", "active", "name"),
+                                               Collections.singletonList("age"));
+    }
+
+    /**
+     * Returns the users matching the <code>filter</code> by scanning all the users.
+     *
+     * @param filter
+     * @return
+     */
+    private List<TestUser> scan(Filter<TestUser> filter) {
+        return users.stream().filter(filter::apply).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the filter of the key/value pairs.
+     *
+     * @param pairs
+     * @return
+     */
+    private Filter<TestUser> filterOf(Object... pairs) {
+        Payload<String, Object> payload = Payload.newBuilder();
+        for (int index = 0; index < pairs.length; index += 2) {
+            payload.ofPair((String) pairs[index], pairs[index + 1]);
+        }
+
+        return new DefaultFilter<>(payload);
+    }
+
+    /**
+     * Tests the indexed results are the same as scanning, in the same order.
+     */
+    @Test
+    public void testGetByFilter() {
+        List<Filter<TestUser>> filters = Arrays.asList(
+            filterOf("email", "user42@lakra.com"),
+            filterOf("email", "user42@lakra.com", "active", false),
+            filterOf("active", true, "name", "User 3"),
+            filterOf(Operator.GE.keyOf("age"), 45),
+            filterOf(Operator.BETWEEN.keyOf("age"), Arrays.asList(10, 12), "active", true),
+            filterOf(Operator.LT.keyOf("age"), 3, Operator.IN.keyOf("name"), Arrays.asList("User 1", "User 2")),
+            filterOf(Operator.BETWEEN.keyOf("age"), Arrays.asList(12, 10)),
+            filterOf("name", null),
+            filterOf("email", "unknown@lakra.com"),
+            filterOf(Operator.LIKE.keyOf("email"), "user9%"),
+            filterOf("id", 7L));
+        for (Filter<TestUser> filter : filters) {
+            assertEquals(scan(filter), indexedUsers.getByFilter(filter), filter.toString());
+        }
+    }
+
+    /**
+     * Tests the operands of a different type than the index keys are evaluated by the filter.
+     */
+    @Test
+    public void testGetByFilterWithMismatchedType() {
+        Filter<TestUser> filter = filterOf(Operator.GT.keyOf("age"), 47L);
+        assertEquals(scan(filter), indexedUsers.getByFilter(filter));
+    }
+
+    /**
+     * Tests the properties with the values of mixed classes aren't indexed.
+     */
+    @Test
+    public void testMixedValuesNotIndexed() {
+        List<TestOrder> orders = new ArrayList<>();
+        orders.add(new TestOrder(1L, null, "book"));
+        orders.add(new TestOrder(2L, null, 2));
+        IndexedCollection<TestOrder> indexedOrders = new IndexedCollection<>(orders, "id", "item");
+        assertTrue(indexedOrders.isIndexed("id"));
+        assertFalse(indexedOrders.isIndexed("item"));
+        assertEquals(1, indexedOrders.getByFilter(new DefaultFilter<>(Payload.newBuilder().ofPair("item", 2))).size());
+    }
+
+    /**
+     * Tests the decimals of the different scales match the same elements with and without the indexes.
+     */
+    @Test
+    public void testGetByFilterWithScaledDecimals() {
+        List<TestProduct> products = new ArrayList<>();
+        products.add(new TestProduct("P1", "Book", new BigDecimal("1.0"), 1, LocalDate.now(), true));
+        products.add(new TestProduct("P2", "Pen", new BigDecimal("2.50"), 2, LocalDate.now(), true));
+        products.add(new TestProduct("P3", "Ink", new BigDecimal("1.000"), 3, LocalDate.now(), false));
+        IndexedCollection<TestProduct> indexedProducts = new IndexedCollection<>(products, "price");
+        IndexedCollection<TestProduct> sortedProducts = new IndexedCollection<>(products, null,
+                                                                                Collections.singletonList("price"));
+        assertTrue(indexedProducts.isIndexed("price"));
+
+        List<Filter<TestProduct>> filters = Arrays.asList(
+            new DefaultFilter<>(Payload.newBuilder().ofPair("price", new BigDecimal("1.00"))),
+            new DefaultFilter<>(Payload.newBuilder().ofPair("price", "2.5")),
+            new DefaultFilter<>(Payload.newBuilder().ofPair(Operator.IN.keyOf("price"), Arrays.asList("1", "2.500"))));
+        for (Filter<TestProduct> filter : filters) {
+            List<TestProduct> expected = products.stream().filter(filter::apply).collect(Collectors.toList());
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, indexedProducts.getByFilter(filter));
+            assertEquals(expected, sortedProducts.getByFilter(filter));
+            assertEquals(expected, new IndexedCollection<>(products).getByFilter(filter));
+        }
+        assertEquals(2, indexedProducts.getByFilter(filters.get(0)).size());
+    }
+}
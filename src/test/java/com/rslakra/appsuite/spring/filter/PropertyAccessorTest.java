@@ -0,0 +1,158 @@
+package com.rslakra.appsuite.spring.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for the compiled <code>PropertyAccessor</code>.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 10:05 AM
+ */
+public class PropertyAccessorTest {
+
+    /**
+     * Tests the accessors are cached per class and property name.
+     */
+    @Test
+    public void testAccessorIsCached() {
+        PropertyAccessor accessor = PropertyAccessor.of(TestUser.class, "email");
+        assertSame(accessor, PropertyAccessor.of(TestUser.class, "email"));
+        assertEquals(TestUser.class, accessor.getBeanClass());
+        assertEquals("email", accessor.getPropertyName());
+    }
+
+    /**
+     * Tests the accessors read the property values.
+     */
+    @Test
+    public void testReadProperty() throws Exception {
+        TestUser user = new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true);
+        assertEquals(1L, PropertyAccessor.of(TestUser.class, "id").read(user));
+        assertEquals("rslakra@lakra.com", PropertyAccessor.of(TestUser.class, "email").read(user));
+        assertEquals(30, PropertyAccessor.of(TestUser.class, "age").read(user));
+        assertEquals(true, PropertyAccessor.of(TestUser.class, "active").read(user));
+
+        TestProduct product = new TestProduct("P001", "Test Product", null, 10, null, true);
+        assertEquals("P001", PropertyAccessor.of(TestProduct.class, "productId").read(product));
+        assertEquals(10, PropertyAccessor.of(TestProduct.class, "quantity").read(product));
+    }
+
+    /**
+     * Tests the missing properties are read without throwing.
+     */
+    @Test
+    public void testMissingProperty() throws Exception {
+        PropertyAccessor accessor = PropertyAccessor.of(TestUser.class, "nonExistent");
+        assertFalse(accessor.isPresent());
+
+        TestUser user = new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true);
+        assertFalse(accessor.isReadable(user));
+        assertNull(accessor.read(user));
+        assertTrue(PropertyAccessor.of(TestUser.class, "email").isReadable(user));
+    }
+
+    /**
+     * The record of the tests of the record components.
+     *
+     * @param code
+     * @param label
+     */
+    public record TestTag(String code, String label) {
+
+        /**
+         * Returns the label in the upper case, a method which isn't a property.
+         *
+         * @return
+         */
+        public String upperLabel() {
+            return label.toUpperCase();
+        }
+    }
+
+    /**
+     * Tests only the getters, the record components and the fields are properties, never the other methods.
+     */
+    @Test
+    public void testOnlyPropertiesAreResolved() throws Exception {
+        TestTag tag = new TestTag("T1", "Tag");
+        assertEquals("T1", PropertyAccessor.of(TestTag.class, "code").read(tag));
+        assertEquals("Tag", PropertyAccessor.of(TestTag.class, "label").read(tag));
+        assertFalse(PropertyAccessor.of(TestTag.class, "upperLabel").isPresent());
+
+        for (String methodName : new String[]{"toString", "hashCode", "getClass", "class"}) {
+            assertFalse(PropertyAccessor.of(TestUser.class, methodName).isPresent(), methodName);
+            assertFalse(PropertyAccessor.of(TestTag.class, methodName).isPresent(), methodName);
+        }
+    }
+
+    /**
+     * Tests the properties of the map elements are read by key.
+     */
+    @Test
+    public void testMapProperty() throws Exception {
+        Map<String, Object> element = new HashMap<>();
+        element.put("email", "rslakra@lakra.com");
+        element.put("name", null);
+
+        assertTrue(PropertyAccessor.of(HashMap.class, "email").isReadable(element));
+        assertEquals("rslakra@lakra.com", PropertyAccessor.of(HashMap.class, "email").read(element));
+        assertTrue(PropertyAccessor.of(HashMap.class, "name").isReadable(element));
+        assertFalse(PropertyAccessor.of(HashMap.class, "age").isReadable(element));
+    }
+
+    /**
+     * Tests the dotted property paths are read through the nested objects.
+     */
+    @Test
+    public void testPathProperty() throws Exception {
+        TestUser customer = new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true);
+        TestProduct product = new TestProduct("P001", "Test Product", null, 10, null, true);
+        TestOrder order = new TestOrder(100L, customer, product);
+
+        PropertyAccessor accessor = PropertyAccessor.of(TestOrder.class, "customer.email");
+        assertTrue(accessor.isPresent());
+        assertEquals(String.class, accessor.getPropertyType());
+        assertEquals("rslakra@lakra.com", accessor.read(order));
+
+        // resolved on the runtime class of the value
+        assertEquals("P001", PropertyAccessor.of(TestOrder.class, "item.productId").read(order));
+
+        // null-safe
+        TestOrder noCustomer = new TestOrder(101L, null, null);
+        assertFalse(accessor.isReadable(noCustomer));
+        assertNull(accessor.read(noCustomer));
+        assertFalse(PropertyAccessor.of(TestOrder.class, "customer.nonExistent").isReadable(order));
+    }
+
+    /**
+     * Tests the filters on the dotted property paths.
+     */
+    @Test
+    public void testFilterWithPathProperty() {
+        TestOrder order = new TestOrder(100L, new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true), null);
+        TestOrder noCustomer = new TestOrder(101L, null, null);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("customer.email", "rslakra@lakra.com");
+        params.put("customer.age:ge", "18");
+        DefaultFilter<TestOrder> filter = new DefaultFilter<>(params);
+        assertTrue(filter.apply(order));
+        assertFalse(filter.apply(noCustomer));
+
+        Map<String, Object> customer = new HashMap<>();
+        customer.put("email", "rslakra@lakra.com");
+        Map<String, Object> element = new HashMap<>();
+        element.put("customer", customer);
+        assertTrue(new DefaultFilter<Object>(Map.of("customer.email", "rslakra@lakra.com")).apply(element));
+    }
+
+}
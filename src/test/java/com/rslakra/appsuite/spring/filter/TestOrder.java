@@ -0,0 +1,51 @@
+package com.rslakra.appsuite.spring.filter;
+
+/**
+ * Test custom class for Filter testing with nested properties.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 2:20 PM
+ */
+public class TestOrder {
+    private Long id;
+    private TestUser customer;
+    private Object item;
+
+    public TestOrder() {
+    }
+
+    public TestOrder(Long id, TestUser customer, Object item) {
+        this.id = id;
+        this.customer = customer;
+        this.item = item;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TestUser getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(TestUser customer) {
+        this.customer = customer;
+    }
+
+    public Object getItem() {
+        return item;
+    }
+
+    public void setItem(Object item) {
+        this.item = item;
+    }
+
+    @Override
+    public String toString() {
+        return "TestOrder{id=" + id + ", customer=" + customer + ", item=" + item + "}";
+    }
+}
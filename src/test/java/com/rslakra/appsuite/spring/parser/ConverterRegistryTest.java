@@ -0,0 +1,85 @@
+package com.rslakra.appsuite.spring.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the <code>ConverterRegistry</code> converting the text values.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 7:55 PM
+ */
+public class ConverterRegistryTest {
+
+    /**
+     * Tests the conversion to the built-in types.
+     */
+    @Test
+    public void testAsType() {
+        assertEquals(100L, ConverterRegistry.asType("100", Long.class));
+        assertEquals(100, ConverterRegistry.asType("100", int.class));
+        assertEquals(new BigDecimal("10.50"), Parser.asType("10.50", BigDecimal.class));
+        assertEquals(Boolean.TRUE, ConverterRegistry.asType("true", boolean.class));
+        assertEquals(TimeUnit.SECONDS, ConverterRegistry.asType("SECONDS", TimeUnit.class));
+        assertEquals(LocalDate.of(2026, 10, 17), ConverterRegistry.asType("2026-10-17", LocalDate.class));
+        assertEquals(Instant.parse("2026-10-17T10:15:30Z"),
+                     ConverterRegistry.asType("2026-10-17T10:15:30Z", Instant.class));
+        assertEquals(Date.from(LocalDateTime.of(2026, 10, 17, 10, 15).atZone(ZoneId.systemDefault()).toInstant()),
+                     Parser.asType("2026-10-17T10:15", Date.class));
+        assertNull(ConverterRegistry.asType(null, Long.class));
+        assertNull(ConverterRegistry.asType("100", Object.class));
+        assertThrows(NumberFormatException.class, () -> ConverterRegistry.asType("abc", Long.class));
+    }
+
+    /**
+     * Tests the converters of the custom types are registered and resolved once.
+     */
+    @Test
+    public void testRegister() {
+        assertNull(ConverterRegistry.converterOf(Money.class));
+        ConverterRegistry.register(Money.class, Money::new);
+        assertEquals("10 USD", ConverterRegistry.asType("10 USD", Money.class).text);
+        assertSame(ConverterRegistry.converterOf(Money.class), ConverterRegistry.converterOf(Money.class));
+        ConverterRegistry.register(Money.class, text -> new Money(text.trim()));
+        assertEquals("10 USD", ConverterRegistry.asType(" 10 USD ", Money.class).text);
+    }
+
+    /**
+     * Tests replacing the converter of a wrapper replaces the resolved converter of its primitive type.
+     */
+    @Test
+    public void testRegisterWrapper() {
+        assertEquals((short) 10, ConverterRegistry.asType("10", short.class));
+        ConverterRegistry.register(Short.class, text -> Short.valueOf(text.trim()));
+        try {
+            assertEquals((short) 10, ConverterRegistry.asType(" 10 ", short.class));
+            assertEquals((short) 10, ConverterRegistry.asType(" 10 ", Short.class));
+        } finally {
+            ConverterRegistry.register(Short.class, Short::valueOf);
+        }
+    }
+
+    /**
+     * The custom type.
+     */
+    private static class Money {
+
+        private final String text;
+
+        Money(String text) {
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.rslakra.appsuite.spring.parser.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rslakra.appsuite.spring.filter.TestUser;
+import com.rslakra.appsuite.spring.parser.RowError;
+import com.rslakra.appsuite.spring.parser.RowErrors;
+import com.rslakra.appsuite.spring.parser.RowException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the <code>CsvParser</code> reading the CSV files.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 4:45 PM
+ */
+public class CsvParserTest {
+
+    private final TestCsvParser csvParser = new TestCsvParser();
+
+    /**
+     * Returns the CSV content of the <code>count</code> users, with the quoted names spanning the lines.
+     *
+     * @param count
+     * @return
+     */
+    static String csvOf(int count) {
+        StringBuilder csv = new StringBuilder("id,name,email,age,active\r\n");
+        for (int index = 0; index < count; index++) {
+            csv.append(index).append(",\"User, ").append(index).append("\nLakra \"\"").append(index % 7)
+                .append("\"\"\",user").append(index).append("@lakra.com,").append(index % 50).append(',')
+                .append(index % 3 == 0).append("\r\n");
+        }
+
+        return csv.toString();
+    }
+
+    /**
+     * Tests the parsed users.
+     *
+     * @param users
+     * @param count
+     */
+    static void assertUsers(List<TestUser> users, int count) {
+        assertEquals(count, users.size());
+        for (int index = 0; index < count; index++) {
+            TestUser user = users.get(index);
+            assertEquals(index, user.getId());
+            assertEquals("User, " + index + "\nLakra \"" + (index % 7) + "\"", user.getName());
+            assertEquals(index % 50, user.getAge());
+        }
+    }
+
+    /**
+     * Tests the records are parsed lazily and the stream closes the input.
+     */
+    @Test
+    public void testStreamCSVStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream inputStream = new ByteArrayInputStream(csvOf(100).getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        try (Stream<TestUser> users = csvParser.streamCSVStream(inputStream)) {
+            Iterator<TestUser> iterator = users.iterator();
+            assertEquals(0L, iterator.next().getId());
+            assertEquals(1L, iterator.next().getId());
+        }
+        assertTrue(closed.get());
+    }
+
+    /**
+     * Tests all the records are read.
+     */
+    @Test
+    public void testReadCSVStream() throws IOException {
+        assertUsers(csvParser.readCSVStream(new ByteArrayInputStream(csvOf(100).getBytes(StandardCharsets.UTF_8))),
+                    100);
+    }
+
+    /**
+     * Tests the boundaries split on the record starts, not on the line feeds of the quoted fields.
+     */
+    @Test
+    public void testSplitRecords() {
+        String csv = csvOf(100);
+        ByteBuffer buffer = ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8));
+        int headerEnd = CSVUtils.nextRecordStart(buffer, 0, buffer.limit());
+        assertEquals("id,name,email,age,active\r\n".length(), headerEnd);
+
+        int[] boundaries = CSVUtils.splitRecords(buffer, headerEnd, buffer.limit(), 7);
+        assertEquals(8, boundaries.length);
+        assertEquals(headerEnd, boundaries[0]);
+        assertEquals(buffer.limit(), boundaries[7]);
+        for (int index = 1; index < boundaries.length - 1; index++) {
+            assertTrue(boundaries[index] > boundaries[index - 1]);
+            assertTrue(csv.startsWith(",\"User, ", csv.indexOf(',', boundaries[index])));
+            assertEquals('\n', csv.charAt(boundaries[index] - 1));
+            assertEquals('\r', csv.charAt(boundaries[index] - 2));
+        }
+    }
+
+    /**
+     * Tests the large content is parsed in parallel chunks, in the order of the file.
+     */
+    @Test
+    public void testReadCSVStreamParallel() throws IOException {
+        int count = 60000;
+        byte[] csvBytes = csvOf(count).getBytes(StandardCharsets.UTF_8);
+        assertTrue(csvBytes.length > CsvParser.PARALLEL_CHUNK_SIZE * 2);
+        assertUsers(csvParser.readCSVStreamParallel(new ByteArrayInputStream(csvBytes)), count);
+        byte[] smallBytes = csvOf(3).getBytes(StandardCharsets.UTF_8);
+        assertUsers(csvParser.readCSVStreamParallel(new ByteArrayInputStream(smallBytes)), 3);
+    }
+
+    /**
+     * Tests the local files are read through the mapped buffer, in parallel and as a stream.
+     */
+    @Test
+    public void testReadCSVFile() throws IOException {
+        Path csvPath = Files.createTempFile("users-", ".csv");
+        try {
+            Files.write(csvPath, csvOf(60000).getBytes(StandardCharsets.UTF_8));
+            assertUsers(csvParser.readCSVFile(csvPath), 60000);
+            try (Stream<TestUser> users = csvParser.streamCSVFile(csvPath)) {
+                assertUsers(users.limit(10).collect(Collectors.toList()), 10);
+            }
+        } finally {
+            Files.deleteIfExists(csvPath);
+        }
+    }
+
+    /**
+     * Tests the written rows read back to the same users and the large content is flushed in chunks.
+     */
+    @Test
+    public void testWriteStream() throws IOException {
+        byte[] csvBytes = csvOf(20000).getBytes(StandardCharsets.UTF_8);
+        List<TestUser> users = csvParser.readCSVStream(new ByteArrayInputStream(csvBytes));
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        csvParser.writeStream(outputStream, users.stream());
+        assertTrue(flushes.get() > outputStream.size() / CsvParser.WRITE_CHUNK_SIZE);
+        assertUsers(csvParser.readCSVStream(new ByteArrayInputStream(outputStream.toByteArray())), 20000);
+
+        outputStream = (ByteArrayOutputStream) csvParser.writeStream(users.subList(0, 10));
+        assertUsers(csvParser.readCSVStream(new ByteArrayInputStream(outputStream.toByteArray())), 10);
+    }
+
+    /**
+     * Tests the headers are bound to the columns of the file, ignoring the case.
+     */
+    @Test
+    public void testCSVRowBinding() throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+        try (CSVParser parser = CSVParser.parse("EMAIL,Id\nrslakra@lakra.com,1\nshort\n", csvFormat)) {
+            Function<CSVRecord, CSVRow> binder = CSVRow.binderOf(parser, new String[]{"id", "email", "age"});
+            Iterator<CSVRecord> records = parser.iterator();
+            CSVRow csvRow = binder.apply(records.next());
+            assertEquals(3, csvRow.size());
+            assertEquals("1", csvRow.get(0));
+            assertEquals("rslakra@lakra.com", csvRow.get(1));
+            assertEquals("rslakra@lakra.com", csvRow.get("Email"));
+            assertNull(csvRow.get(2));
+            assertNull(csvRow.get("name"));
+
+            csvRow = binder.apply(records.next());
+            assertEquals("short", csvRow.get(1));
+            assertNull(csvRow.get(0));
+        }
+    }
+
+    /**
+     * Returns the <code>csvBytes</code> compressed with the <code>encoding</code>.
+     *
+     * @param csvBytes
+     * @param encoding
+     * @return
+     * @throws IOException
+     */
+    private static byte[] compress(byte[] csvBytes, String encoding) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DeflaterOutputStream compressedStream = CSVUtils.compressing(outputStream, encoding);
+        compressedStream.write(csvBytes);
+        compressedStream.finish();
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Tests the compressed content is detected and decompressed while reading.
+     */
+    @Test
+    public void testReadCompressed() throws IOException {
+        byte[] csvBytes = csvOf(1000).getBytes(StandardCharsets.UTF_8);
+        List<TestUser> users = csvParser.readCSVStream(new ByteArrayInputStream(csvBytes));
+        for (String encoding : new String[]{CSVUtils.GZIP_ENCODING, CSVUtils.DEFLATE_ENCODING}) {
+            byte[] compressedBytes = compress(csvBytes, encoding);
+            assertTrue(compressedBytes.length < csvBytes.length / 4);
+            InputStream compressedStream = CSVUtils.decompressing(new ByteArrayInputStream(compressedBytes), encoding);
+            assertUsers(csvParser.readCSVStream(compressedStream), 1000);
+
+            // the downloads are compressed with the accepted encoding
+            InputStream resourceStream = csvParser.buildCSVResourceStream(users, encoding).getInputStream();
+            assertUsers(csvParser.readCSVStream(CSVUtils.decompressing(resourceStream, encoding)), 1000);
+        }
+
+        // only the gzip content is detected
+        byte[] compressedBytes = compress(csvBytes, CSVUtils.GZIP_ENCODING);
+        assertEquals(CSVUtils.GZIP_ENCODING,
+                     CSVUtils.encodingOf(compressedBytes[0] & 0xff, compressedBytes[1] & 0xff));
+        assertUsers(csvParser.readCSVStream(new ByteArrayInputStream(compressedBytes)), 1000);
+        assertUsers(csvParser.readCSVStreamParallel(new ByteArrayInputStream(compressedBytes)), 1000);
+        byte[] deflateBytes = compress(csvBytes, CSVUtils.DEFLATE_ENCODING);
+        assertNull(CSVUtils.encodingOf(deflateBytes[0] & 0xff, deflateBytes[1] & 0xff));
+        Path csvPath = Files.createTempFile("users-", ".csv.gz");
+        try {
+            Files.write(csvPath, compressedBytes);
+            assertUsers(csvParser.readCSVFile(csvPath), 1000);
+        } finally {
+            Files.deleteIfExists(csvPath);
+        }
+
+        assertNull(CSVUtils.encodingOf('i', 'd'));
+        assertNull(CSVUtils.encodingOf('x', ','));
+
+        // the text of the valid zlib headers isn't decompressed
+        for (String header : new String[]{"x ", "x?", "x^"}) {
+            byte[] textBytes = (header + "id,name\n1,User 1\n").getBytes(StandardCharsets.UTF_8);
+            assertNull(CSVUtils.encodingOf(textBytes[0], textBytes[1]));
+            InputStream textStream = CSVUtils.decompressing(new ByteArrayInputStream(textBytes));
+            assertEquals(new String(textBytes, StandardCharsets.UTF_8),
+                         new String(textStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Tests the preferred encoding of the <code>Accept-Encoding</code> header.
+     */
+    @Test
+    public void testAcceptedEncoding() {
+        assertEquals(CSVUtils.GZIP_ENCODING, CSVUtils.acceptedEncoding("gzip, deflate, br"));
+        assertEquals(CSVUtils.GZIP_ENCODING, CSVUtils.acceptedEncoding("deflate;q=0.5, GZIP;q=0.8"));
+        assertEquals(CSVUtils.DEFLATE_ENCODING, CSVUtils.acceptedEncoding("gzip;q=0, deflate"));
+        assertNull(CSVUtils.acceptedEncoding("identity, br"));
+        assertNull(CSVUtils.acceptedEncoding(null));
+    }
+
+    /**
+     * Tests the lenient import skips and reports the invalid rows, and continues with the rest of the file.
+     */
+    @Test
+    public void testStreamCSVStreamWithRowErrors() throws IOException {
+        String csv = "id,name,email,age,active\n"
+                     + "1,User 1,user1@lakra.com,21,true\n"
+                     + "2,User 2,user2@lakra.com,twenty,true\n"
+                     + "3,User 3,user3@lakra.com,23,false\n"
+                     + "four,User 4,user4@lakra.com,24,false\n"
+                     + "5,User 5,user5@lakra.com,25,true\n";
+        RowErrors rowErrors = new RowErrors();
+        try (Stream<TestUser> users = csvParser.streamCSVStream(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), rowErrors)) {
+            assertEquals(List.of(1L, 3L, 5L), users.map(TestUser::getId).collect(Collectors.toList()));
+        }
+
+        assertEquals(2, rowErrors.getCount());
+        assertFalse(rowErrors.isTruncated());
+        List<RowError> errors = rowErrors.getErrors();
+        assertEquals(3, errors.get(0).getLineNumber());
+        assertEquals("age", errors.get(0).getColumn());
+        assertTrue(errors.get(0).getReason().contains("twenty"));
+        assertEquals(5, errors.get(1).getLineNumber());
+        assertEquals("id", errors.get(1).getColumn());
+
+        // the strict import fails on the first invalid row
+        assertThrows(RowException.class, () -> csvParser.readCSVStream(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Tests the reported errors are bounded, while all the errors are counted.
+     */
+    @Test
+    public void testRowErrorsBounded() {
+        RowErrors rowErrors = new RowErrors(3);
+        for (int index = 0; index < 10; index++) {
+            rowErrors.add(RowError.of(index + 2, new RowException("age", "Invalid age " + index)));
+        }
+
+        assertEquals(10, rowErrors.getCount());
+        assertEquals(3, rowErrors.getErrors().size());
+        assertTrue(rowErrors.isTruncated());
+        assertEquals(2, rowErrors.getErrors().get(0).getLineNumber());
+        assertEquals("Invalid age 0", rowErrors.getErrors().get(0).getReason());
+    }
+}
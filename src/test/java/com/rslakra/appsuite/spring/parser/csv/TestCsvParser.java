@@ -0,0 +1,72 @@
+package com.rslakra.appsuite.spring.parser.csv;
+
+import com.rslakra.appsuite.spring.filter.TestUser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The CSV parser of the <code>TestUser</code> objects.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 4:40 PM
+ */
+public class TestCsvParser extends AbstractCSVParser<TestUser> {
+
+    public static final String[] HEADERS = {"id", "name", "email", "age", "active"};
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int AGE = 3;
+    private static final int ACTIVE = 4;
+
+    @Override
+    public String getUploadFileName() {
+        return "users.csv";
+    }
+
+    @Override
+    public String getDownloadFileName() {
+        return "users.csv";
+    }
+
+    @Override
+    public String[] getReadHeaders() {
+        return HEADERS;
+    }
+
+    @Override
+    public String[] getWriteHeaders() {
+        return HEADERS;
+    }
+
+    @Override
+    public List<TestUser> readStream(InputStream inputStream) {
+        try {
+            return readCSVStream(inputStream);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public List<String> buildRowCells(TestUser user) {
+        return Arrays.asList(String.valueOf(user.getId()), user.getName(), user.getEmail(),
+                             String.valueOf(user.getAge()), String.valueOf(user.getActive()));
+    }
+
+    @Override
+    public TestUser readCSVRecord(CSVRecord csvRecord) {
+        return new TestUser(Long.valueOf(csvRecord.get("id")), csvRecord.get("name"), csvRecord.get("email"),
+                            Integer.valueOf(csvRecord.get("age")), Boolean.valueOf(csvRecord.get("active")));
+    }
+
+    @Override
+    public TestUser readCSVRow(CSVRow csvRow) {
+        return new TestUser(csvRow.get(ID, Long.class), csvRow.get(NAME), csvRow.get(EMAIL),
+                            csvRow.get(AGE, Integer.class), csvRow.get(ACTIVE, Boolean.class));
+    }
+}
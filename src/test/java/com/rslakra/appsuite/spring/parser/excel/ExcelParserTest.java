@@ -0,0 +1,383 @@
+package com.rslakra.appsuite.spring.parser.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rslakra.appsuite.spring.filter.TestUser;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the <code>ExcelParser</code> reading the Excel files.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 9:50 PM
+ */
+public class ExcelParserTest {
+
+    /**
+     * Returns the Excel content of the <code>count</code> users in the <code>Users</code> sheet, after another sheet.
+     * The ages are formulas.
+     *
+     * @param count
+     * @return
+     * @throws IOException
+     */
+    static byte[] excelOf(int count) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
+            workbook.createSheet("Other").createRow(0).createCell(0).setCellValue("other");
+            addUsersSheet(workbook, TestExcelParser.SHEET_NAME, count);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(byteStream);
+            return byteStream.toByteArray();
+        }
+    }
+
+    /**
+     * Adds the sheet of the <code>count</code> users to the <code>workbook</code>.
+     *
+     * @param workbook
+     * @param sheetName
+     * @param count
+     */
+    static void addUsersSheet(Workbook workbook, String sheetName, int count) {
+        Sheet sheet = workbook.createSheet(sheetName);
+        Row headerRow = sheet.createRow(0);
+        for (int column = 0; column < TestExcelParser.HEADERS.length; column++) {
+            headerRow.createCell(column).setCellValue(TestExcelParser.HEADERS[column]);
+        }
+
+        for (int index = 0; index < count; index++) {
+            Row row = sheet.createRow(index + 1);
+            row.createCell(0).setCellValue(index);
+            row.createCell(1).setCellValue("User " + index);
+            row.createCell(2).setCellValue("user" + index + "@lakra.com");
+            row.createCell(3).setCellFormula((index % 50) + "+0");
+            row.createCell(4).setCellValue(index % 3 == 0);
+        }
+    }
+
+    /**
+     * Returns the number of the temporary Excel files.
+     *
+     * @return
+     * @throws IOException
+     */
+    static long excelTempFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return paths.filter(path -> path.getFileName().toString().startsWith("excel-")).count();
+        }
+    }
+
+    /**
+     * Tests the parsed users.
+     *
+     * @param users
+     * @param count
+     */
+    static void assertUsers(List<TestUser> users, int count) {
+        assertEquals(count, users.size());
+        for (int index = 0; index < count; index++) {
+            TestUser user = users.get(index);
+            assertEquals(index, user.getId());
+            assertEquals("User " + index, user.getName());
+            assertEquals("user" + index + "@lakra.com", user.getEmail());
+            assertEquals(index % 50, user.getAge());
+            assertEquals(index % 3 == 0, user.getActive());
+        }
+    }
+
+    /**
+     * Tests the streaming and the workbook readers read the same users of the sheet.
+     */
+    @Test
+    public void testReadStream() throws IOException {
+        byte[] excelBytes = excelOf(2000);
+        assertUsers(new TestExcelParser().readStream(new ByteArrayInputStream(excelBytes)), 2000);
+        assertUsers(new TestExcelParser(false).readStream(new ByteArrayInputStream(excelBytes)), 2000);
+        assertUsers(new TestExcelParser().readStream(new ByteArrayInputStream(excelOf(0))), 0);
+    }
+
+    /**
+     * Tests the rows are parsed lazily and the temporary file is deleted when the stream is closed.
+     */
+    @Test
+    public void testStreamExcelStream() throws IOException {
+        long tempFiles = excelTempFiles();
+        TestExcelParser excelParser = new TestExcelParser();
+        try (Stream<TestUser> users = excelParser.streamExcelStream(new ByteArrayInputStream(excelOf(100)))) {
+            Iterator<TestUser> iterator = users.iterator();
+            assertEquals(0L, iterator.next().getId());
+            assertEquals(1L, iterator.next().getId());
+        }
+
+        assertEquals(tempFiles, excelTempFiles());
+    }
+
+    /**
+     * Tests the streamed cells keep the types of the file, and the missing sheet fails.
+     */
+    @Test
+    public void testSheetRowIterator() throws Exception {
+        LocalDateTime birthday = LocalDateTime.of(2026, 10, 17, 0, 0);
+        Path excelPath = Files.createTempFile("users-", ".xlsx");
+        try (Workbook workbook = new XSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Row row = workbook.createSheet(TestExcelParser.SHEET_NAME).createRow(3);
+            row.createCell(1).setCellValue(birthday);
+            row.getCell(1).setCellStyle(dateStyle);
+            row.createCell(2).setCellStyle(dateStyle);
+            row.createCell(4).setCellValue(2.5);
+            try (OutputStream outputStream = Files.newOutputStream(excelPath)) {
+                workbook.write(outputStream);
+            }
+
+            try (SheetRowIterator rows = new SheetRowIterator(OPCPackage.open(excelPath.toFile(), PackageAccess.READ),
+                                                              TestExcelParser.SHEET_NAME)) {
+                assertTrue(rows.hasNext());
+                Row streamedRow = rows.next();
+                assertEquals(3, streamedRow.getRowNum());
+                assertTrue(DateUtil.isCellDateFormatted(streamedRow.getCell(1)));
+                assertEquals(birthday, streamedRow.getCell(1).getLocalDateTimeCellValue());
+                assertEquals(CellType.BLANK, streamedRow.getCell(2).getCellType());
+                assertNull(streamedRow.getCell(3));
+                assertEquals(2.5, streamedRow.getCell(4).getNumericCellValue());
+                assertFalse(DateUtil.isCellDateFormatted(streamedRow.getCell(4)));
+                assertFalse(rows.hasNext());
+            }
+
+            OPCPackage opcPackage = OPCPackage.open(excelPath.toFile(), PackageAccess.READ);
+            assertThrows(IllegalArgumentException.class, () -> new SheetRowIterator(opcPackage, "Missing"));
+            opcPackage.revert();
+        } finally {
+            Files.deleteIfExists(excelPath);
+        }
+    }
+
+    /**
+     * Returns the <code>count</code> users.
+     *
+     * @param count
+     * @return
+     */
+    static List<TestUser> usersOf(int count) {
+        List<TestUser> users = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            users.add(new TestUser((long) index, "User " + index, "user" + index + "@lakra.com", index % 50,
+                                   index % 3 == 0));
+        }
+
+        return users;
+    }
+
+    /**
+     * Tests the written workbook has the headers and the rows of all the users, and the resource file is deleted when
+     * the resource stream is closed.
+     */
+    @Test
+    public void testWriteStream() throws Exception {
+        TestExcelParser excelParser = new TestExcelParser();
+        List<TestUser> users = usersOf(5000);
+
+        ByteArrayOutputStream excelBytes = (ByteArrayOutputStream) excelParser.writeStream(users);
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(excelBytes.toByteArray()))) {
+            Sheet sheet = workbook.getSheet(TestExcelParser.SHEET_NAME);
+            assertEquals(5001, sheet.getPhysicalNumberOfRows());
+            assertEquals("email", sheet.getRow(0).getCell(2).getStringCellValue());
+            assertEquals("User 4999", sheet.getRow(5000).getCell(1).getStringCellValue());
+            assertEquals(49, sheet.getRow(5000).getCell(3).getNumericCellValue());
+        }
+        assertUsers(excelParser.readStream(new ByteArrayInputStream(excelBytes.toByteArray())), 5000);
+
+        long tempFiles = excelTempFiles();
+        InputStreamResource resource = excelParser.buildStreamResources(users);
+        // the temporary file is deleted before the resource is read
+        assertEquals(tempFiles, excelTempFiles());
+        try (InputStream inputStream = resource.getInputStream();
+             Workbook workbook = new XSSFWorkbook(inputStream)) {
+            assertEquals(5001, workbook.getSheet(TestExcelParser.SHEET_NAME).getPhysicalNumberOfRows());
+        }
+        assertEquals(tempFiles, excelTempFiles());
+    }
+
+    /**
+     * Tests all (or the chosen) sheets are read, in the order of the names, with the rows of each sheet in order.
+     */
+    @Test
+    public void testReadSheets() throws IOException {
+        byte[] excelBytes;
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
+            addUsersSheet(workbook, "January", 3000);
+            addUsersSheet(workbook, "February", 10);
+            addUsersSheet(workbook, "March", 0);
+            addUsersSheet(workbook, "April", 1500);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(byteStream);
+            excelBytes = byteStream.toByteArray();
+        }
+
+        TestExcelParser excelParser = new TestExcelParser();
+        Map<String, List<TestUser>> sheets = excelParser.readSheets(new ByteArrayInputStream(excelBytes), null);
+        assertEquals(List.of("January", "February", "March", "April"), new ArrayList<>(sheets.keySet()));
+        assertUsers(sheets.get("January"), 3000);
+        assertUsers(sheets.get("February"), 10);
+        assertUsers(sheets.get("March"), 0);
+        assertUsers(sheets.get("April"), 1500);
+
+        sheets = excelParser.readSheets(new ByteArrayInputStream(excelBytes), List.of("April", "February", "April"));
+        assertEquals(List.of("April", "February"), new ArrayList<>(sheets.keySet()));
+        assertUsers(sheets.get("April"), 1500);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> excelParser.readSheets(new ByteArrayInputStream(excelBytes), List.of("May")));
+    }
+
+    /**
+     * Tests the rows of the sheets are streamed one sheet after the other, parsed on the consuming thread, and the
+     * temporary file is deleted when the stream is closed.
+     */
+    @Test
+    public void testStreamSheets() throws IOException {
+        byte[] excelBytes;
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
+            addUsersSheet(workbook, "January", 300);
+            addUsersSheet(workbook, "February", 0);
+            addUsersSheet(workbook, "March", 200);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(byteStream);
+            excelBytes = byteStream.toByteArray();
+        }
+
+        long tempFiles = excelTempFiles();
+        Thread consumer = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+        TestExcelParser excelParser = new TestExcelParser() {
+            @Override
+            public TestUser readCells(Iterator<Cell> rowCells) {
+                threads.add(Thread.currentThread());
+                return super.readCells(rowCells);
+            }
+        };
+        List<TestUser> users;
+        try (Stream<TestUser> tStream = excelParser.streamSheets(new ByteArrayInputStream(excelBytes), null)) {
+            users = tStream.collect(Collectors.toList());
+        }
+        assertEquals(500, users.size());
+        assertUsers(users.subList(0, 300), 300);
+        assertUsers(users.subList(300, 500), 200);
+        assertTrue(threads.stream().allMatch(thread -> thread == consumer));
+        assertEquals(tempFiles, excelTempFiles());
+
+        try (Stream<TestUser> tStream = excelParser.streamSheets(new ByteArrayInputStream(excelBytes),
+                                                                 List.of("March", "January", "March"))) {
+            users = tStream.collect(Collectors.toList());
+        }
+        assertUsers(users.subList(0, 200), 200);
+        assertUsers(users.subList(200, 500), 300);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> excelParser.streamSheets(new ByteArrayInputStream(excelBytes), List.of("January", "May")));
+        assertEquals(tempFiles, excelTempFiles());
+    }
+
+    /**
+     * Tests the typed cells, the cached styles of the dates and the precision of the large numbers.
+     */
+    @Test
+    public void testSetCellValue() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            int styles = workbook.getNumCellStyles();
+            Map<String, CellStyle> cellStyles = new HashMap<>();
+            Row row = workbook.createSheet().createRow(0);
+            LocalDate birthday = LocalDate.of(2026, 10, 18);
+            for (int column = 0; column < 100; column++) {
+                ExcelUtils.setCellValue(row.createCell(column), birthday.plusDays(column), cellStyles);
+            }
+            ExcelUtils.setCellValue(row.createCell(100), LocalDateTime.of(2026, 10, 18, 10, 30), cellStyles);
+            ExcelUtils.setCellValue(row.createCell(101), 1234567890123L, cellStyles);
+            ExcelUtils.setCellValue(row.createCell(102), Long.MAX_VALUE, cellStyles);
+            ExcelUtils.setCellValue(row.createCell(103), new BigDecimal("0.1"), cellStyles);
+            ExcelUtils.setCellValue(row.createCell(104), null, cellStyles);
+
+            // a style per date format, not per cell
+            assertEquals(styles + 2, workbook.getNumCellStyles());
+            assertEquals(birthday.plusDays(99).atStartOfDay(), row.getCell(99).getLocalDateTimeCellValue());
+            assertEquals(ExcelUtils.DATE_FORMAT, row.getCell(99).getCellStyle().getDataFormatString());
+            assertTrue(DateUtil.isCellDateFormatted(row.getCell(100)));
+            assertEquals(1234567890123d, row.getCell(101).getNumericCellValue());
+            assertEquals(String.valueOf(Long.MAX_VALUE), row.getCell(102).getStringCellValue());
+            assertEquals(0.1, row.getCell(103).getNumericCellValue());
+            assertEquals(CellType.BLANK, row.getCell(104).getCellType());
+        }
+    }
+
+    /**
+     * Returns the size of the workbook of the <code>count</code> date cells, styled by the <code>dateStyle</code>.
+     *
+     * @param count
+     * @param dateStyle
+     * @return
+     * @throws IOException
+     */
+    static int dateCellsSize(int count, Function<Workbook, CellStyle> dateStyle) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            for (int index = 0; index < count; index++) {
+                Cell cell = sheet.createRow(index).createCell(0);
+                cell.setCellValue(LocalDate.of(2026, 1, 1).plusDays(index));
+                cell.setCellStyle(dateStyle.apply(workbook));
+            }
+            workbook.write(byteStream);
+            return byteStream.size();
+        }
+    }
+
+    /**
+     * Tests the cached styles make the files smaller than the styles per cell.
+     */
+    @Test
+    public void testCellStyleCache() throws IOException {
+        Map<String, CellStyle> cellStyles = new HashMap<>();
+        int cachedSize = dateCellsSize(5000, workbook -> ExcelUtils.getDataFormatStyle(workbook, cellStyles,
+                                                                                        ExcelUtils.DATE_FORMAT));
+        int perCellSize = dateCellsSize(5000, workbook -> {
+            CellStyle cellStyle = workbook.createCellStyle();
+            cellStyle.setDataFormat(workbook.createDataFormat().getFormat(ExcelUtils.DATE_FORMAT));
+            return cellStyle;
+        });
+        assertTrue(cachedSize < perCellSize, cachedSize + " < " + perCellSize);
+    }
+}
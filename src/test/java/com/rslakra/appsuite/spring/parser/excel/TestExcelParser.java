@@ -0,0 +1,103 @@
+package com.rslakra.appsuite.spring.parser.excel;
+
+import com.rslakra.appsuite.spring.filter.TestUser;
+import org.apache.poi.ss.usermodel.Cell;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The Excel parser of the <code>TestUser</code> objects.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 9:45 PM
+ */
+public class TestExcelParser extends AbstractExcelParser<TestUser> {
+
+    public static final String SHEET_NAME = "Users";
+    public static final String[] HEADERS = {"id", "name", "email", "age", "active"};
+
+    private final boolean streamingReader;
+
+    /**
+     * @param streamingReader
+     */
+    public TestExcelParser(boolean streamingReader) {
+        this.streamingReader = streamingReader;
+    }
+
+    public TestExcelParser() {
+        this(true);
+    }
+
+    @Override
+    public boolean isStreamingReader() {
+        return streamingReader;
+    }
+
+    @Override
+    public String getSheetName() {
+        return SHEET_NAME;
+    }
+
+    @Override
+    public String getUploadFileName() {
+        return "users.xlsx";
+    }
+
+    @Override
+    public String getDownloadFileName() {
+        return "users.xlsx";
+    }
+
+    @Override
+    public String[] getReadHeaders() {
+        return HEADERS;
+    }
+
+    @Override
+    public String[] getWriteHeaders() {
+        return HEADERS;
+    }
+
+    @Override
+    public TestUser readCells(Iterator<Cell> rowCells) {
+        TestUser user = new TestUser();
+        while (rowCells.hasNext()) {
+            Cell cell = rowCells.next();
+            switch (cell.getColumnIndex()) {
+                case 0:
+                    user.setId((long) cell.getNumericCellValue());
+                    break;
+                case 1:
+                    user.setName(cell.getStringCellValue());
+                    break;
+                case 2:
+                    user.setEmail(cell.getStringCellValue());
+                    break;
+                case 3:
+                    user.setAge((int) cell.getNumericCellValue());
+                    break;
+                case 4:
+                    user.setActive(cell.getBooleanCellValue());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return user;
+    }
+
+    @Override
+    public List<?> buildRowValues(TestUser user) {
+        return Arrays.asList(user.getId(), user.getName(), user.getEmail(), user.getAge(), user.getActive());
+    }
+
+    @Override
+    public List<String> buildRowCells(TestUser user) {
+        return Arrays.asList(String.valueOf(user.getId()), user.getName(), user.getEmail(),
+                             String.valueOf(user.getAge()), String.valueOf(user.getActive()));
+    }
+}
@@ -0,0 +1,211 @@
+package com.rslakra.appsuite.spring.persistence.repository;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.rslakra.appsuite.spring.filter.DefaultFilter;
+import com.rslakra.appsuite.spring.filter.Filter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests the predicates of the <code>FilterSpecification</code> built on the mocked criteria API.
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 10:05 AM
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class FilterSpecificationTest {
+
+    private Root root;
+    private CriteriaQuery query;
+    private CriteriaBuilder builder;
+    private Predicate predicate;
+    private Path idPath;
+    private Path namePath;
+    private Path agePath;
+    private Path addressPath;
+    private Path cityPath;
+
+    /**
+     * Mocks the entity of the <code>id</code>, <code>name</code>, <code>age</code> and <code>address</code>
+     * attributes, where the <code>address</code> has the <code>city</code> attribute.
+     */
+    @BeforeEach
+    public void setUp() {
+        root = Mockito.mock(Root.class);
+        query = Mockito.mock(CriteriaQuery.class);
+        builder = Mockito.mock(CriteriaBuilder.class);
+        predicate = Mockito.mock(Predicate.class);
+
+        final EntityType entityType = Mockito.mock(EntityType.class);
+        final Set<Attribute> attributes = new HashSet<>();
+        for (String attributeName : Arrays.asList("id", "name", "age", "address")) {
+            final Attribute attribute = Mockito.mock(Attribute.class);
+            Mockito.when(attribute.getName()).thenReturn(attributeName);
+            attributes.add(attribute);
+        }
+        Mockito.when(root.getModel()).thenReturn(entityType);
+        Mockito.when(entityType.getAttributes()).thenReturn(attributes);
+
+        idPath = mockPath(Long.class);
+        namePath = mockPath(String.class);
+        agePath = mockPath(Integer.class);
+        addressPath = mockPath(Object.class);
+        cityPath = mockPath(String.class);
+        Mockito.doReturn(idPath).when(root).get("id");
+        Mockito.doReturn(namePath).when(root).get("name");
+        Mockito.doReturn(agePath).when(root).get("age");
+        Mockito.doReturn(addressPath).when(root).get("address");
+        Mockito.doReturn(cityPath).when(addressPath).get("city");
+        Mockito.doThrow(new IllegalArgumentException("zip")).when(addressPath).get("zip");
+        Mockito.when(builder.and(ArgumentMatchers.<Predicate>any())).thenReturn(predicate);
+    }
+
+    /**
+     * Returns the mocked path of the <code>javaType</code>.
+     *
+     * @param javaType
+     * @return
+     */
+    private static Path mockPath(Class<?> javaType) {
+        final Path path = Mockito.mock(Path.class);
+        Mockito.doReturn(javaType).when(path).getJavaType();
+        Mockito.doReturn(path).when(path).as(String.class);
+        return path;
+    }
+
+    /**
+     * Returns the predicate of the filter of the single <code>key=value</code> criterion.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    private Predicate toPredicate(String key, Object value) {
+        final Map<String, Object> allParams = new LinkedHashMap<>();
+        allParams.put(key, value);
+        return FilterSpecification.of(new DefaultFilter<>(allParams)).toPredicate(root, query, builder);
+    }
+
+    /**
+     * Tests the equality criterion converts the value to the type of the attribute.
+     */
+    @Test
+    public void testEquality() {
+        assertSame(predicate, toPredicate("id", "5"));
+        Mockito.verify(builder).equal(idPath, 5L);
+    }
+
+    /**
+     * Tests the <code>null</code> value matches the <code>IS NULL</code> attributes.
+     */
+    @Test
+    public void testNullValue() {
+        toPredicate("name", null);
+        Mockito.verify(builder).isNull(namePath);
+        Mockito.verify(builder, Mockito.never()).equal(ArgumentMatchers.any(), ArgumentMatchers.<Object>any());
+
+        // the range operators without an operand match nothing
+        toPredicate("age:gt", null);
+        toPredicate("age:ge", "");
+        toPredicate("age:lt", null);
+        toPredicate("age:le", "");
+        toPredicate("age:between", Arrays.asList(18, null));
+        toPredicate("age:between", ",65");
+        Mockito.verify(builder, Mockito.times(6)).disjunction();
+        Mockito.verify(builder, Mockito.never()).greaterThan(ArgumentMatchers.any(),
+                                                             ArgumentMatchers.<Comparable>any());
+        Mockito.verify(builder, Mockito.never()).between(ArgumentMatchers.any(), ArgumentMatchers.<Comparable>any(),
+                                                         ArgumentMatchers.<Comparable>any());
+    }
+
+    /**
+     * Tests the keys not mapped on the entity match nothing.
+     */
+    @Test
+    public void testUnmappedKey() {
+        toPredicate("unknown", "value");
+        toPredicate("address.zip", "78701");
+        Mockito.verify(builder, Mockito.times(2)).disjunction();
+        Mockito.verify(root, Mockito.never()).get("unknown");
+    }
+
+    /**
+     * Tests the predicates of the comparison operators.
+     */
+    @Test
+    public void testComparisonOperators() {
+        toPredicate("age:ne", "18");
+        Mockito.verify(builder).notEqual(agePath, 18);
+        toPredicate("age:ne", null);
+        Mockito.verify(builder).isNotNull(agePath);
+        toPredicate("age:gt", "18");
+        Mockito.verify(builder).greaterThan(agePath, (Comparable) 18);
+        toPredicate("age:ge", "19");
+        Mockito.verify(builder).greaterThanOrEqualTo(agePath, (Comparable) 19);
+        toPredicate("age:lt", "65");
+        Mockito.verify(builder).lessThan(agePath, (Comparable) 65);
+        toPredicate("age:le", "64");
+        Mockito.verify(builder).lessThanOrEqualTo(agePath, (Comparable) 64);
+        toPredicate("age:between", "18,65");
+        Mockito.verify(builder).between(agePath, (Comparable) 18, (Comparable) 65);
+        assertThrows(IllegalArgumentException.class, () -> toPredicate("age:between", "18"));
+    }
+
+    /**
+     * Tests the predicates of the membership, text and null operators.
+     */
+    @Test
+    public void testMembershipAndTextOperators() {
+        final CriteriaBuilder.In in = Mockito.mock(CriteriaBuilder.In.class);
+        Mockito.when(builder.in(agePath)).thenReturn(in);
+        toPredicate("age:in", "18,21");
+        Mockito.verify(in).value(18);
+        Mockito.verify(in).value(21);
+
+        toPredicate("name:prefix", "rs_l");
+        Mockito.verify(builder).like(namePath, "rs\\_l%", '\\');
+        toPredicate("name:like", "%lakra%");
+        Mockito.verify(builder).like(namePath, "%lakra%");
+
+        toPredicate("name:isNull", "true");
+        Mockito.verify(builder).isNull(namePath);
+        toPredicate("name:isNull", "false");
+        Mockito.verify(builder).isNotNull(namePath);
+    }
+
+    /**
+     * Tests the dotted keys join the nested attributes.
+     */
+    @Test
+    public void testDottedPath() {
+        toPredicate("address.city", "Austin");
+        Mockito.verify(builder).equal(cityPath, "Austin");
+    }
+
+    /**
+     * Tests the filters which don't expose their keys are rejected.
+     */
+    @Test
+    public void testFilterWithoutKeys() {
+        final Filter<Object> filter = Mockito.mock(Filter.class, Mockito.CALLS_REAL_METHODS);
+        assertThrows(UnsupportedOperationException.class,
+                     () -> FilterSpecification.of(filter).toPredicate(root, query, builder));
+    }
+}
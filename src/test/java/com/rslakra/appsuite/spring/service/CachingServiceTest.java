@@ -0,0 +1,202 @@
+package com.rslakra.appsuite.spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.rslakra.appsuite.spring.filter.DefaultFilter;
+import com.rslakra.appsuite.spring.filter.Filter;
+import com.rslakra.appsuite.spring.filter.TestUser;
+import com.rslakra.appsuite.spring.persistence.ServiceOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for the <code>CachingService</code> caching the filter results.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 4:15 PM
+ */
+public class CachingServiceTest {
+
+    private UserService userService;
+    private CachingService<TestUser, Long> cachingService;
+
+    @BeforeEach
+    public void setUp() {
+        userService = new UserService();
+        userService.create(new TestUser(1L, "Roh Lak", "rslakra@lakra.com", 30, true));
+        userService.create(new TestUser(2L, "Sun Lak", "sunlak@lakra.com", 25, false));
+        cachingService = new CachingService<>(userService, 2);
+    }
+
+    /**
+     * Returns the filter of the key/value pairs, in the provided order.
+     *
+     * @param pairs
+     * @return
+     */
+    private Filter<TestUser> filterOf(Object... pairs) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int index = 0; index < pairs.length; index += 2) {
+            params.put((String) pairs[index], pairs[index + 1]);
+        }
+
+        return new DefaultFilter<>(params);
+    }
+
+    /**
+     * Tests the repeated filters, in any order of the criteria, are served from the cache.
+     */
+    @Test
+    public void testGetByFilterIsCached() {
+        assertEquals(1, cachingService.getByFilter(filterOf("active", true, "age", 30)).size());
+        assertEquals(1, cachingService.getByFilter(filterOf("age", 30, "active", true)).size());
+        assertEquals(1, userService.filterCalls);
+        assertThrows(UnsupportedOperationException.class,
+                     () -> cachingService.getByFilter(filterOf("active", true, "age", 30)).clear());
+
+        Pageable pageable = PageRequest.of(0, 10);
+        assertEquals(1, cachingService.getByFilter(filterOf("active", false), pageable).getTotalElements());
+        assertEquals(1, cachingService.getByFilter(filterOf("active", false), pageable).getTotalElements());
+        cachingService.getByFilter(filterOf("active", false), PageRequest.of(1, 10));
+        assertEquals(3, userService.filterCalls);
+    }
+
+    /**
+     * Tests the writes invalidate the cached results.
+     */
+    @Test
+    public void testWritesInvalidateCache() {
+        assertEquals(1, cachingService.getByFilter(filterOf("active", true)).size());
+        cachingService.create(new TestUser(3L, "Tan Lak", "tanlak@lakra.com", 20, true));
+        assertEquals(0, cachingService.getCachedSize());
+        assertEquals(2, cachingService.getByFilter(filterOf("active", true)).size());
+
+        cachingService.delete(1L);
+        assertEquals(1, cachingService.getByFilter(filterOf("active", true)).size());
+        assertEquals(3, userService.filterCalls);
+    }
+
+    /**
+     * Tests the least recently used results are evicted beyond the maximum size.
+     */
+    @Test
+    public void testMaximumSize() {
+        for (int age = 0; age < 10; age++) {
+            cachingService.getByFilter(filterOf("age", age));
+        }
+
+        assertEquals(2, cachingService.getCachedSize());
+    }
+
+    /**
+     * Tests the filters which don't expose their keys are delegated without caching.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetByFilterWithoutKeys() {
+        Filter<TestUser> filter = Mockito.mock(Filter.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doAnswer(invocation -> invocation.<TestUser>getArgument(0).getActive()).when(filter)
+            .apply(Mockito.any());
+        assertEquals(1, cachingService.getByFilter(filter).size());
+        assertEquals(1, cachingService.getByFilter(filter).size());
+        assertEquals(1, cachingService.getByFilter(filter, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(3, userService.filterCalls);
+        assertEquals(0, cachingService.getCachedSize());
+    }
+
+    /**
+     * Tests all the objects are fetched lazily page by page, without caching the pages.
+     */
+    @Test
+    public void testGetAllInPages() {
+        cachingService.create(new TestUser(3L, "Tan Lak", "tanlak@lakra.com", 20, true));
+        Iterator<TestUser> users = cachingService.getAllInPages(PageRequest.of(0, 2)).iterator();
+        assertEquals(0, userService.filterCalls);
+        assertEquals(1L, users.next().getId());
+        assertEquals(2L, users.next().getId());
+        assertEquals(1, userService.filterCalls);
+        assertEquals(3L, users.next().getId());
+        assertFalse(users.hasNext());
+        assertEquals(2, userService.filterCalls);
+        assertEquals(0, cachingService.getCachedSize());
+    }
+
+    /**
+     * The in-memory service counting the filter calls.
+     */
+    private static class UserService implements AbstractService<TestUser, Long> {
+
+        private final Map<Long, TestUser> users = new LinkedHashMap<>();
+        private int filterCalls;
+
+        @Override
+        public TestUser validate(ServiceOperation serviceOperation, TestUser user) {
+            return user;
+        }
+
+        @Override
+        public TestUser create(TestUser user) {
+            users.put(user.getId(), user);
+            return user;
+        }
+
+        @Override
+        public List<TestUser> create(List<TestUser> users) {
+            users.forEach(this::create);
+            return users;
+        }
+
+        @Override
+        public List<TestUser> getAll() {
+            return new ArrayList<>(users.values());
+        }
+
+        @Override
+        public TestUser getById(Long id) {
+            return users.get(id);
+        }
+
+        @Override
+        public List<TestUser> getByFilter(Filter<TestUser> filter) {
+            filterCalls++;
+            return users.values().stream().filter(filter::apply).collect(Collectors.toList());
+        }
+
+        @Override
+        public Page<TestUser> getByFilter(Filter<TestUser> filter, Pageable pageable) {
+            List<TestUser> matches = getByFilter(filter);
+            int fromIndex = (int) Math.min(pageable.getOffset(), matches.size());
+            int toIndex = Math.min(fromIndex + pageable.getPageSize(), matches.size());
+            return new PageImpl<>(matches.subList(fromIndex, toIndex), pageable, matches.size());
+        }
+
+        @Override
+        public TestUser update(TestUser user) {
+            return create(user);
+        }
+
+        @Override
+        public List<TestUser> update(List<TestUser> users) {
+            return create(users);
+        }
+
+        @Override
+        public TestUser delete(Long id) {
+            return users.remove(id);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.rslakra.appsuite.spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rslakra.appsuite.spring.context.AuditorAwareImpl;
+import com.rslakra.appsuite.spring.filter.Filter;
+import com.rslakra.appsuite.spring.filter.TestUser;
+import com.rslakra.appsuite.spring.persistence.ServiceOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Tests for the <code>ImportPipeline</code> creating the objects in batches.
+ *
+ * @author Rohtash Lakra
+ * @created 10/17/26 6:05 PM
+ */
+public class ImportPipelineTest {
+
+    /**
+     * Returns the stream of the <code>count</code> users.
+     *
+     * @param count
+     * @return
+     */
+    private static Stream<TestUser> usersOf(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(index -> new TestUser((long) index, "User " + index, "user" + index + "@lakra.com", index, true));
+    }
+
+    /**
+     * Tests all the objects are validated and created in order, in batches of the batch size.
+     */
+    @Test
+    public void testImportAll() {
+        BatchService batchService = new BatchService(-1);
+        ImportPipeline<TestUser> importPipeline = new ImportPipeline<>(batchService, 100, 1);
+        assertEquals(1050, importPipeline.importAll(usersOf(1050)));
+        assertEquals(1050, batchService.validated);
+        assertEquals(11, batchService.batchSizes.size());
+        assertEquals(100, batchService.batchSizes.get(0));
+        assertEquals(50, batchService.batchSizes.get(10));
+        for (int index = 0; index < batchService.created.size(); index++) {
+            assertEquals(index, batchService.created.get(index).getId());
+        }
+
+        assertEquals(0, importPipeline.importAll(Collections.<TestUser>emptyIterator()));
+    }
+
+    /**
+     * Tests the objects are validated and created in the caller thread, audited as the caller.
+     */
+    @Test
+    public void testImportAllInCallerThread() {
+        SecurityContextHolder.getContext()
+            .setAuthentication(new TestingAuthenticationToken("rslakra", "password", "ROLE_USER"));
+        try {
+            BatchService batchService = new BatchService(-1);
+            assertEquals(1050, new ImportPipeline<>(batchService, 100, 1).importAll(usersOf(1050)));
+            assertEquals(Collections.singleton(Thread.currentThread()), batchService.threads);
+            assertEquals(Collections.singleton("rslakra"), batchService.auditors);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Tests the failure of a stage stops the import and is rethrown.
+     */
+    @Test
+    public void testImportAllFailure() {
+        BatchService batchService = new BatchService(3);
+        ImportPipeline<TestUser> importPipeline = new ImportPipeline<>(batchService, 10);
+        AtomicLong createdCount = new AtomicLong();
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                                                () -> importPipeline.importAll(usersOf(100000), null, createdCount));
+        assertEquals("Failed batch 3!", ex.getMessage());
+        assertEquals(30, batchService.created.size());
+        assertEquals(30, createdCount.get());
+        assertTrue(batchService.validated < 100000);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ImportPipeline<>(new BatchService(-1)).importAll(usersOf(10).map(user -> {
+                         throw new IllegalArgumentException("Invalid row!");
+                     })));
+    }
+
+    /**
+     * Tests the failed job resumes after the created batches, and the completed job isn't imported again.
+     */
+    @Test
+    public void testImportAllResume() {
+        MemoryCheckpointStore checkpointStore = new MemoryCheckpointStore();
+        BatchService failedService = new BatchService(3);
+        assertThrows(IllegalStateException.class,
+                     () -> new ImportPipeline<>(failedService, 10, 1, checkpointStore, "users")
+                         .importAll(usersOf(100), "users-1"));
+        assertEquals(30, failedService.created.size());
+        assertEquals(30, checkpointStore.getCheckpoint("users", "users-1").getRecordNumber());
+        assertFalse(checkpointStore.getCheckpoint("users", "users-1").isCompleted());
+
+        BatchService batchService = new BatchService(-1);
+        ImportPipeline<TestUser> importPipeline = new ImportPipeline<>(batchService, 10, 1, checkpointStore, "users");
+        assertEquals(100, importPipeline.importAll(usersOf(100), "users-1"));
+        assertEquals(70, batchService.created.size());
+        assertEquals(30, batchService.created.get(0).getId());
+        assertEquals(99, batchService.created.get(69).getId());
+        ImportCheckpoint checkpoint = checkpointStore.getCheckpoint("users", "users-1");
+        assertEquals(100, checkpoint.getRecordNumber());
+        assertEquals(100, checkpoint.getCreatedCount());
+        assertTrue(checkpoint.isCompleted());
+
+        // the retry of the completed job (like after a lost response) returns its count
+        assertEquals(100, importPipeline.importAll(usersOf(100), "users-1"));
+        assertEquals(70, batchService.created.size());
+
+        // the same job id of another scope is another job
+        BatchService rolesService = new BatchService(-1);
+        assertEquals(20, new ImportPipeline<>(rolesService, 10, 1, checkpointStore, "roles")
+            .importAll(usersOf(20), "users-1"));
+        assertEquals(20, rolesService.created.size());
+
+        // the empty source completes without any batch
+        assertEquals(0, importPipeline.importAll(Collections.<TestUser>emptyIterator(), "users-2"));
+        assertTrue(checkpointStore.getCheckpoint("users", "users-2").isCompleted());
+
+        assertThrows(IllegalStateException.class,
+                     () -> new ImportPipeline<>(batchService).importAll(usersOf(10), "users-3"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ImportPipeline<>(batchService, 10, 1, checkpointStore, null));
+    }
+
+    /**
+     * Tests the concurrent runs of a job fail, instead of creating the same objects twice.
+     */
+    @Test
+    public void testImportAllConcurrentJob() {
+        MemoryCheckpointStore checkpointStore = new MemoryCheckpointStore();
+        BatchService batchService = new BatchService(-1) {
+            @Override
+            public List<TestUser> create(List<TestUser> users) {
+                // another run of the same job, while this one runs
+                new ImportPipeline<>(new BatchService(-1), 10, 1, checkpointStore, "users")
+                    .importAll(usersOf(10), "users-3");
+                return super.create(users);
+            }
+        };
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                                                () -> new ImportPipeline<>(batchService, 10, 1, checkpointStore,
+                                                                           "users").importAll(usersOf(100), "users-3"));
+        assertEquals("The job:users-3 is already running!", ex.getMessage());
+        assertEquals(0, batchService.created.size());
+
+        // the checkpoint advanced by another instance
+        checkpointStore.checkpoints.put(List.of("users", "users-4"), new ImportCheckpoint(20, 20, false));
+        ex = assertThrows(IllegalStateException.class,
+                          () -> checkpointStore.commitBatch("users", "users-4", 10, 20, () -> List.of("batch")));
+        assertEquals("The job:users-4 is imported concurrently!", ex.getMessage());
+    }
+
+    /**
+     * The in-memory store of the checkpoints, which runs the batches without a transaction.
+     */
+    private static class MemoryCheckpointStore implements ImportCheckpointStore {
+
+        private final Map<List<String>, ImportCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+        @Override
+        public ImportCheckpoint getCheckpoint(String jobScope, String jobId) {
+            return checkpoints.getOrDefault(List.of(jobScope, jobId), ImportCheckpoint.NONE);
+        }
+
+        /**
+         * Checks the checkpoint of the job is at the <code>fromRecord</code>, and not completed.
+         *
+         * @param checkpoint
+         * @param jobId
+         * @param fromRecord
+         */
+        private static void checkCheckpoint(ImportCheckpoint checkpoint, String jobId, long fromRecord) {
+            if (checkpoint.getRecordNumber() != fromRecord || checkpoint.isCompleted()) {
+                throw new IllegalStateException("The job:" + jobId + " is imported concurrently!");
+            }
+        }
+
+        @Override
+        public <R> List<R> commitBatch(String jobScope, String jobId, long fromRecord, long toRecord,
+                                       Supplier<List<R>> batch) {
+            final ImportCheckpoint checkpoint = getCheckpoint(jobScope, jobId);
+            checkCheckpoint(checkpoint, jobId, fromRecord);
+            final List<R> result = batch.get();
+            checkpoints.put(List.of(jobScope, jobId),
+                            new ImportCheckpoint(toRecord, checkpoint.getCreatedCount() + result.size(), false));
+            return result;
+        }
+
+        @Override
+        public void completeCheckpoint(String jobScope, String jobId, long recordNumber) {
+            final ImportCheckpoint checkpoint = getCheckpoint(jobScope, jobId);
+            checkCheckpoint(checkpoint, jobId, recordNumber);
+            checkpoints.put(List.of(jobScope, jobId),
+                            new ImportCheckpoint(recordNumber, checkpoint.getCreatedCount(), true));
+        }
+
+        @Override
+        public void removeCheckpoint(String jobScope, String jobId) {
+            checkpoints.remove(List.of(jobScope, jobId));
+        }
+    }
+
+    /**
+     * The service recording the created batches, which fails the batch of <code>failedBatch</code> index.
+     */
+    private static class BatchService implements AbstractService<TestUser, Long> {
+
+        private final int failedBatch;
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<TestUser> created = new ArrayList<>();
+        private final Set<Thread> threads = new HashSet<>();
+        private final Set<String> auditors = new HashSet<>();
+        private volatile int validated;
+
+        BatchService(int failedBatch) {
+            this.failedBatch = failedBatch;
+        }
+
+        @Override
+        public TestUser validate(ServiceOperation serviceOperation, TestUser user) {
+            assertEquals(ServiceOperation.CREATE, serviceOperation);
+            threads.add(Thread.currentThread());
+            validated++;
+            return user;
+        }
+
+        @Override
+        public TestUser create(TestUser user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<TestUser> create(List<TestUser> users) {
+            if (batchSizes.size() == failedBatch) {
+                throw new IllegalStateException("Failed batch " + failedBatch + "!");
+            }
+
+            threads.add(Thread.currentThread());
+            auditors.add(new AuditorAwareImpl().getCurrentAuditor().get());
+            batchSizes.add(users.size());
+            created.addAll(users);
+            return users;
+        }
+
+        @Override
+        public List<TestUser> getAll() {
+            return created;
+        }
+
+        @Override
+        public TestUser getById(Long id) {
+            return null;
+        }
+
+        @Override
+        public List<TestUser> getByFilter(Filter<TestUser> filter) {
+            return null;
+        }
+
+        @Override
+        public Page<TestUser> getByFilter(Filter<TestUser> filter, Pageable pageable) {
+            return null;
+        }
+
+        @Override
+        public TestUser update(TestUser user) {
+            return user;
+        }
+
+        @Override
+        public List<TestUser> update(List<TestUser> users) {
+            return users;
+        }
+
+        @Override
+        public TestUser delete(Long id) {
+            return null;
+        }
+    }
+}
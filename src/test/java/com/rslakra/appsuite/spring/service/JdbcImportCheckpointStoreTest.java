@@ -0,0 +1,111 @@
+package com.rslakra.appsuite.spring.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the <code>JdbcImportCheckpointStore</code> saving the checkpoints in the transactions of the batches.
+ *
+ * @author Rohtash Lakra
+ * @created 10/18/26 1:45 PM
+ */
+public class JdbcImportCheckpointStoreTest {
+
+    private static final String SELECT_SQL = "SELECT record_number, created_count, completed FROM"
+                                             + " import_checkpoints WHERE job_scope = ? AND job_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO import_checkpoints"
+                                             + " (job_scope, job_id, record_number, created_count, completed)"
+                                             + " VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE import_checkpoints"
+                                             + " SET record_number = ?, created_count = created_count + ?,"
+                                             + " completed = ? WHERE job_scope = ? AND job_id = ?"
+                                             + " AND record_number = ? AND completed = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionOperations transactionOperations;
+    private JdbcImportCheckpointStore checkpointStore;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        transactionOperations = Mockito.mock(TransactionOperations.class);
+        Mockito.when(transactionOperations.execute(ArgumentMatchers.any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0)
+                .doInTransaction(Mockito.mock(TransactionStatus.class)));
+        checkpointStore = new JdbcImportCheckpointStore(jdbcTemplate, transactionOperations,
+                                                        JdbcImportCheckpointStore.DEFAULT_TABLE_NAME);
+    }
+
+    /**
+     * Tests the checkpoint of the jobs without a row is <code>NONE</code>.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetCheckpoint() {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(30, 25, true);
+        Mockito.when(jdbcTemplate.query(ArgumentMatchers.eq(SELECT_SQL), ArgumentMatchers.any(RowMapper.class),
+                                        ArgumentMatchers.eq("users"), ArgumentMatchers.eq("users-1")))
+            .thenReturn(Collections.singletonList(checkpoint));
+        Mockito.when(jdbcTemplate.query(ArgumentMatchers.eq(SELECT_SQL), ArgumentMatchers.any(RowMapper.class),
+                                        ArgumentMatchers.eq("users"), ArgumentMatchers.eq("users-2")))
+            .thenReturn(Collections.emptyList());
+        assertSame(checkpoint, checkpointStore.getCheckpoint("users", "users-1"));
+        assertSame(ImportCheckpoint.NONE, checkpointStore.getCheckpoint("users", "users-2"));
+        assertThrows(IllegalArgumentException.class, () -> checkpointStore.getCheckpoint("users", ""));
+        assertThrows(IllegalArgumentException.class, () -> checkpointStore.getCheckpoint(null, "users-1"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new JdbcImportCheckpointStore(jdbcTemplate, transactionOperations, "checkpoints;"));
+    }
+
+    /**
+     * Tests the batch and its checkpoint are committed in one transaction, and the job is completed.
+     */
+    @Test
+    public void testCommitBatch() {
+        Mockito.when(jdbcTemplate.update(INSERT_SQL, "users", "users-1", 10L, 1L, false)).thenReturn(1);
+        Mockito.when(jdbcTemplate.update(UPDATE_SQL, 20L, 2L, false, "users", "users-1", 10L, false)).thenReturn(1);
+        Mockito.when(jdbcTemplate.update(UPDATE_SQL, 20L, 0L, true, "users", "users-1", 20L, false)).thenReturn(1);
+        assertEquals(List.of("first"), checkpointStore.commitBatch("users", "users-1", 0, 10, () -> List.of("first")));
+        assertEquals(List.of("second", "third"),
+                     checkpointStore.commitBatch("users", "users-1", 10, 20, () -> List.of("second", "third")));
+        checkpointStore.completeCheckpoint("users", "users-1", 20);
+        Mockito.verify(transactionOperations, Mockito.times(2)).execute(ArgumentMatchers.any());
+        Mockito.verify(jdbcTemplate).update(UPDATE_SQL, 20L, 0L, true, "users", "users-1", 20L, false);
+    }
+
+    /**
+     * Tests the checkpoint advanced (or completed) by another run fails the batch, which is rolled back.
+     */
+    @Test
+    public void testCommitBatchConcurrently() {
+        Mockito.when(jdbcTemplate.update(UPDATE_SQL, 20L, 1L, false, "users", "users-1", 10L, false)).thenReturn(0);
+        Mockito.when(jdbcTemplate.update(INSERT_SQL, "users", "users-2", 10L, 1L, false))
+            .thenThrow(new DuplicateKeyException("users-2"));
+        for (String jobId : Arrays.asList("users-1", "users-2")) {
+            long fromRecord = ("users-1".equals(jobId) ? 10 : 0);
+            IllegalStateException ex = assertThrows(IllegalStateException.class,
+                                                    () -> checkpointStore.commitBatch("users", jobId, fromRecord,
+                                                                                      fromRecord + 10,
+                                                                                      () -> List.of(jobId)));
+            assertEquals("The job:" + jobId + " is imported concurrently!", ex.getMessage());
+        }
+
+        assertThrows(IllegalStateException.class, () -> checkpointStore.completeCheckpoint("users", "users-1", 10));
+    }
+}